@@ -0,0 +1,102 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.DateUtils;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingListBenchmark {
+    private static final int BOOKINGS = 10000;
+    private static final String ENTITY_GRAPH_QUERY = "select b from Booking b join fetch b.item i " +
+            "join fetch i.owner join fetch b.booker where b.booker = :user order by b.end desc";
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private User booker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.main.banner-mode=off", "logging.level.root=warn")
+                .run();
+
+        bookingRepository = context.getBean(BookingRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        Dataset dataset = new Dataset(BOOKINGS, DateUtils.now());
+        dataset.detach();
+
+        UserService userService = context.getBean(UserService.class);
+        userService.addUser(dataset.getOwner());
+        booker = userService.addUser(dataset.getBooker());
+
+        context.getBean(ItemRepository.class).insertAll(dataset.getItems());
+        bookingRepository.insertAll(dataset.getBookings());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> entityGraph() {
+        return readOnlyTransaction.execute(status -> BookingMapper.toListBookingDto(entityManager
+                .createQuery(ENTITY_GRAPH_QUERY, Booking.class)
+                .setParameter("user", booker)
+                .setMaxResults(pageSize)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<BookingDto> projection() {
+        return readOnlyTransaction.execute(status -> BookingMapper.toBookingsDto(bookingRepository
+                .findByBooker(booker, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "end")))));
+    }
+}
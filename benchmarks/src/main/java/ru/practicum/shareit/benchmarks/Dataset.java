@@ -0,0 +1,55 @@
+package ru.practicum.shareit.benchmarks;
+
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+class Dataset {
+    private static final int ITEMS_PER_OWNER = 20;
+    private static final Status[] STATUSES = Status.values();
+
+    private final User owner;
+    private final User booker;
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+    private final List<Comment> comments = new ArrayList<>();
+
+    Dataset(int size, LocalDateTime now) {
+        owner = new User(1L, "owner", "owner@shareit.ru");
+        booker = new User(2L, "booker", "booker@shareit.ru");
+
+        for (long i = 1; i <= Math.min(size, ITEMS_PER_OWNER); i++) {
+            items.add(new Item(i, "Item " + i, "Description of item " + i, true, owner, null));
+        }
+
+        for (int i = 0; i < size; i++) {
+            Item item = items.get(i % items.size());
+            LocalDateTime start = now.plusHours(i - size / 2);
+            bookings.add(new Booking((long) i + 1, start, start.plusMinutes(30), item, booker, STATUSES[i % STATUSES.length]));
+
+            Comment comment = new Comment();
+            comment.setId((long) i + 1);
+            comment.setText("Comment " + i + " on " + item.getName());
+            comment.setItem(item);
+            comment.setAuthor(booker);
+            comment.setCreated(start);
+            comments.add(comment);
+        }
+    }
+
+    void detach() {
+        owner.setId(null);
+        booker.setId(null);
+        items.forEach(item -> item.setId(null));
+        bookings.forEach(booking -> booking.setId(null));
+        comments.forEach(comment -> comment.setId(null));
+    }
+}
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class LoadRunner {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final HttpClient http;
+    private final String target;
+    private final Duration duration;
+    private final Duration warmup;
+    private final List<String> metricsUrls;
+
+    private LoadRunner(Map<String, String> options) {
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        this.target = url + options.getOrDefault("path", "/items/{itemId}");
+        this.duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+        this.warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        this.metricsUrls = Arrays.asList(options.getOrDefault("metrics", url).split(","));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+
+        LoadRunner runner = new LoadRunner(options);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        long userId = runner.seed(url + "/users", null,
+                "{\"name\":\"load\",\"email\":\"load-" + UUID.randomUUID() + "@shareit.ru\"}");
+        long itemId = runner.seed(url + "/items", userId,
+                "{\"name\":\"Drill\",\"description\":\"Load test item\",\"available\":true}");
+
+        System.out.printf("%-8s %10s %10s %10s %10s %8s %8s  %s%n",
+                "clients", "req/s", "p50 ms", "p99 ms", "max ms", "non-2xx", "errors", "peak threads");
+        for (String clients : options.getOrDefault("clients", "100,1000").split(",")) {
+            System.out.println(runner.run(Integer.parseInt(clients.trim()), userId, itemId));
+        }
+    }
+
+    private long seed(String url, Long userId, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header(USER_HEADER, userId.toString());
+        }
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("POST " + url + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return MAPPER.readTree(response.body()).get("id").asLong();
+    }
+
+    private Result run(int clients, long userId, long itemId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target
+                        .replace("{itemId}", String.valueOf(itemId))
+                        .replace("{userId}", String.valueOf(userId))))
+                .header(USER_HEADER, String.valueOf(userId))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        Map<String, AtomicInteger> peakThreads = new HashMap<>();
+        metricsUrls.forEach(url -> peakThreads.put(url, new AtomicInteger()));
+        ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+        poller.scheduleAtFixedRate(() -> peakThreads.forEach((url, peak) ->
+                peak.accumulateAndGet(liveThreads(url), Math::max)), 0, 500, TimeUnit.MILLISECONDS);
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureTo = measureFrom + duration.toNanos();
+        List<Client> all = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(request, measureFrom, measureTo);
+            all.add(client);
+            client.next();
+        }
+        CompletableFuture.allOf(all.stream().map(client -> client.done).toArray(CompletableFuture[]::new)).join();
+        poller.shutdownNow();
+
+        long[] latencies = all.stream().flatMapToLong(client -> Arrays.stream(client.latencies, 0, client.count))
+                .sorted().toArray();
+        int non2xx = all.stream().mapToInt(client -> client.non2xx).sum();
+        int errors = all.stream().mapToInt(client -> client.errors).sum();
+        String threads = peakThreads.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().get())
+                .collect(Collectors.joining(" "));
+        return new Result(clients, latencies.length / (duration.toMillis() / 1000.0),
+                percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 1.0),
+                non2xx, errors, threads);
+    }
+
+    private int liveThreads(String url) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/actuator/metrics/jvm.threads.live"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            JsonNode metric = MAPPER.readTree(http.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            return metric.get("measurements").get(0).get("value").asInt();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private class Client {
+        private final HttpRequest request;
+        private final long measureFrom;
+        private final long measureTo;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private long[] latencies = new long[64];
+        private int count;
+        private int non2xx;
+        private int errors;
+
+        private Client(HttpRequest request, long measureFrom, long measureTo) {
+            this.request = request;
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+        }
+
+        private void next() {
+            long start = System.nanoTime();
+            if (start >= measureTo) {
+                done.complete(null);
+                return;
+            }
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long end = System.nanoTime();
+                if (start >= measureFrom && end <= measureTo) {
+                    record(end - start, response, error);
+                }
+                next();
+            });
+        }
+
+        private void record(long latency, HttpResponse<Void> response, Throwable error) {
+            if (error != null) {
+                errors++;
+                return;
+            }
+            if (response.statusCode() >= 300) {
+                non2xx++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Result {
+        private final int clients;
+        private final double throughput;
+        private final double p50;
+        private final double p99;
+        private final double max;
+        private final int non2xx;
+        private final int errors;
+        private final String threads;
+
+        @Override
+        public String toString() {
+            return String.format("%-8d %10.0f %10.1f %10.1f %10.1f %8d %8d  %s",
+                    clients, throughput, p50, p99, max, non2xx, errors, threads);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.DateUtils;
+import ru.practicum.shareit.Range;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100", "10000"})
+    private int bookings;
+
+    @Param({"false", "true"})
+    private boolean itemCache;
+
+    // item reads per item update in mixedReadWrite
+    @Param({"10"})
+    private int readsPerWrite;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private ItemService itemService;
+    private SqlStatementCounter statementCounter;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private long operation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.main.banner-mode=off", "logging.level.root=warn")
+                .run("--shareit.item.cache.enabled=" + itemCache);
+
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        statementCounter = context.getBean(SqlStatementCounter.class);
+
+        Dataset dataset = new Dataset(bookings, DateUtils.now());
+        dataset.detach();
+
+        UserService userService = context.getBean(UserService.class);
+        ownerId = userService.addUser(dataset.getOwner()).getId();
+        bookerId = userService.addUser(dataset.getBooker()).getId();
+
+        context.getBean(ItemRepository.class).insertAll(dataset.getItems());
+        itemId = dataset.getItems().get(0).getId();
+        context.getBean(BookingRepository.class).insertAll(dataset.getBookings());
+        context.getBean(CommentRepository.class).saveAll(dataset.getComments());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> getBookings() {
+        return bookingService.getBookings(bookerId, "ALL", Range.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnerBookings() {
+        return bookingService.getOwnerBookings(ownerId, "ALL", Range.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Item getItem() {
+        return itemService.getItem(itemId);
+    }
+
+    @Benchmark
+    public List<ItemDto> getItems() {
+        return itemService.getItems(ownerId, Range.of(0, PAGE_SIZE));
+    }
+
+    // every update invalidates the cached item, the next read loads it again
+    @Benchmark
+    public void mixedReadWrite(Statements statements, Blackhole blackhole) {
+        if (operation++ % (readsPerWrite + 1) == readsPerWrite) {
+            ItemDto itemDto = new ItemDto();
+            itemDto.setId(itemId);
+            itemDto.setDescription("Updated " + operation);
+            statements.record(statementCounter.measure(() ->
+                    blackhole.consume(itemService.updateItem(ownerId, itemDto))));
+        } else {
+            statements.record(statementCounter.measure(() ->
+                    blackhole.consume(itemService.getItem(itemId))));
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+        public double statementsPerOperation;
+        private long statements;
+        private long operations;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statementsPerOperation = 0;
+            statements = 0;
+            operations = 0;
+        }
+
+        void record(long count) {
+            statements += count;
+            operations++;
+            statementsPerOperation = (double) statements / operations;
+        }
+    }
+}
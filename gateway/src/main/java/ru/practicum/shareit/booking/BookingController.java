@@ -3,17 +3,23 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.ExportFormat;
 import ru.practicum.shareit.exceptions.ValidationException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 import static ru.practicum.shareit.Constants.HEADER_USER_ID;
 
@@ -25,8 +31,11 @@ import static ru.practicum.shareit.Constants.HEADER_USER_ID;
 public class BookingController {
     private final BookingClient bookingClient;
 
+    @Value("${shareit.booking.batch-max-size:100}")
+    private int batchMaxSize;
+
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(HEADER_USER_ID) long userId,
                                            @RequestBody @Valid BookItemRequestDto requestDto) {
 
         if (requestDto.getEnd().isBefore(requestDto.getStart())) {
@@ -43,8 +52,20 @@ public class BookingController {
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> bookItems(@RequestHeader(HEADER_USER_ID) long userId,
+                                                  @RequestBody List<@Valid @NotNull BookItemRequestDto> requestDtos) {
+        if (requestDtos.isEmpty() || requestDtos.size() > batchMaxSize) {
+            log.warn("Batch size {} out of 1..{}", requestDtos.size(), batchMaxSize);
+            throw new ValidationException("Batch size " + requestDtos.size() + " out of 1.." + batchMaxSize);
+        }
+
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> setApprove(@RequestHeader(HEADER_USER_ID) Long userId,
+    public Mono<ResponseEntity<Object>> setApprove(@RequestHeader(HEADER_USER_ID) Long userId,
                                  @PathVariable Long bookingId,
                                  @RequestParam Boolean approved) {
         log.info("Change booking {}, approved {}, user {}", bookingId, approved, userId);
@@ -52,34 +73,64 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(HEADER_USER_ID) long userId,
                                              @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader(HEADER_USER_ID) long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new ValidationException("Unknown state: " + stateParam));
 
 
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookings(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> getOwnerBookings(@RequestHeader(HEADER_USER_ID) long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new ValidationException("Unknown state: " + stateParam));
+
+        log.info("Get owner booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getOwnerBookings(userId, state, from, size, cursor);
+    }
+
+    @ExportEndpoint
+    @GetMapping("/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportBookings(@RequestHeader(HEADER_USER_ID) long userId,
+                                                                      @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                                      @RequestParam(name = "format", defaultValue = "ndjson") String formatParam) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new ValidationException("Unknown state: " + stateParam));
+        ExportFormat format = ExportFormat.from(formatParam)
+                .orElseThrow(() -> new ValidationException("Unknown format: " + formatParam));
+
+        log.info("Export bookings with state {}, userId={}, format={}", stateParam, userId, formatParam);
+        return bookingClient.exportBookings(userId, state, format);
+    }
+
+    @ExportEndpoint
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportOwnerBookings(@RequestHeader(HEADER_USER_ID) long userId,
+                                                                           @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                                           @RequestParam(name = "format", defaultValue = "ndjson") String formatParam) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new ValidationException("Unknown state: " + stateParam));
+        ExportFormat format = ExportFormat.from(formatParam)
+                .orElseThrow(() -> new ValidationException("Unknown format: " + formatParam));
 
-        log.info("Get owner booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getOwnerBookings(userId, state, from, size);
+        log.info("Export owner bookings with state {}, userId={}, format={}", stateParam, userId, formatParam);
+        return bookingClient.exportOwnerBookings(userId, state, format);
     }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// handlers streaming an export, their async processing gets the export timeout
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@interface ExportEndpoint {
+}
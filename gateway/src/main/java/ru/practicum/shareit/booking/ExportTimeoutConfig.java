@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+@Configuration
+public class ExportTimeoutConfig implements WebMvcConfigurer {
+    private final long exportTimeout;
+
+    public ExportTimeoutConfig(@Value("${shareit.booking.export-timeout:30m}") Duration exportTimeout) {
+        this.exportTimeout = exportTimeout.toMillis();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                // the export body (StreamingResponseBody) is written in a Callable, other async requests keep the default timeout
+                Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                        RequestAttributes.SCOPE_REQUEST);
+                if (handler instanceof HandlerMethod
+                        && ((HandlerMethod) handler).hasMethodAnnotation(ExportEndpoint.class)) {
+                    ((AsyncWebRequest) request).setTimeout(exportTimeout);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.util.Optional;
+
+public enum ExportFormat {
+	// Один JSON-объект на строку
+	NDJSON,
+	// Таблица с заголовком
+	CSV;
+
+	public static Optional<ExportFormat> from(String stringFormat) {
+		for (ExportFormat format : values()) {
+			if (format.name().equalsIgnoreCase(stringFormat)) {
+				return Optional.of(format);
+			}
+		}
+		return Optional.empty();
+	}
+}
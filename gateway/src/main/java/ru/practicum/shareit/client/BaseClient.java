@@ -1,8 +1,16 @@
 package ru.practicum.shareit.client;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -11,88 +19,195 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            "keep-alive"
+    );
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final int STREAM_PREFETCH = 16;
+
+    protected final String group;
     protected final RestTemplate rest;
+    protected final WebClient web;
+
+    @Autowired
+    private ClientResilience resilience;
+
+    @Value("${shareit-server.pass-through:false}")
+    private boolean passThrough;
 
-    public BaseClient(RestTemplate rest) {
+    @Value("${shareit-server.client:blocking}")
+    private ClientMode clientMode;
+
+    public BaseClient(String group, RestTemplate rest, WebClient web) {
+        this.group = group;
         this.rest = rest;
+        this.web = web;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<StreamingResponseBody>> getStream(String path, long userId, Map<String, Object> parameters) {
+        Mono<ResponseEntity<Flux<DataBuffer>>> response = web.get()
+                .uri(path, parameters)
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    headers.setAccept(List.of(MediaType.ALL));
+                })
+                .retrieve()
+                .toEntityFlux(DataBuffer.class);
+
+        return resilience.callStream(group, response)
+                .map(BaseClient::toStreamingResponse)
+                .onErrorResume(WebClientResponseException.class, e -> Mono.just(ResponseEntity.status(e.getStatusCode())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(out -> out.write(e.getResponseBodyAsByteArray()))));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected Mono<ResponseEntity<Object>> postStream(String path, long userId, MediaType contentType, InputStream body) {
+        Flux<DataBuffer> content = DataBufferUtils.readInputStream(() -> body,
+                        DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+
+        Mono<ResponseEntity<Object>> response = web.post()
+                .uri(path)
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    headers.setContentType(contentType);
+                })
+                .body(BodyInserters.fromDataBuffers(content))
+                .exchangeToMono(this::toGatewayResponse);
+
+        return withResilience(response);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (clientMode == ClientMode.REACTIVE) {
+            return sendReactiveRequest(method, path, userId, parameters, body);
+        }
+        return Mono.just(sendBlockingRequest(method, path, userId, parameters, body));
+    }
+
+    private <T> ResponseEntity<Object> sendBlockingRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            return resilience.call(group, () -> {
+                if (passThrough) {
+                    return passThroughResponse(exchange(method, path, requestEntity, parameters, byte[].class));
+                }
+                return prepareGatewayResponse(exchange(method, path, requestEntity, parameters, Object.class));
+            });
         } catch (HttpStatusCodeException e) {
             return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> sendReactiveRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+
+        Mono<ResponseEntity<Object>> response = (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(this::toGatewayResponse);
+
+        return withResilience(response);
+    }
+
+    private Mono<ResponseEntity<Object>> withResilience(Mono<ResponseEntity<Object>> response) {
+        return resilience.call(group, response)
+                .onErrorResume(WebClientResponseException.class,
+                        e -> Mono.just(ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray())));
+    }
+
+    private Mono<ResponseEntity<Object>> toGatewayResponse(ClientResponse response) {
+        if (!response.statusCode().is2xxSuccessful()) {
+            return response.createException().flatMap(Mono::error);
+        }
+
+        if (passThrough) {
+            return response.toEntity(byte[].class).map(BaseClient::passThroughResponse);
+        }
+        return response.toEntity(Object.class).map(BaseClient::prepareGatewayResponse);
+    }
+
+    private <T, R> ResponseEntity<R> exchange(HttpMethod method, String path, HttpEntity<T> requestEntity,
+                                              @Nullable Map<String, Object> parameters, Class<R> responseType) {
+        if (parameters != null) {
+            return rest.exchange(path, method, requestEntity, responseType, parameters);
+        } else {
+            return rest.exchange(path, method, requestEntity, responseType);
+        }
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,6 +220,32 @@ public class BaseClient {
         return headers;
     }
 
+    private static ResponseEntity<Object> passThroughResponse(ResponseEntity<byte[]> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(forwardedHeaders(response.getHeaders()))
+                .body(response.getBody());
+    }
+
+    private static ResponseEntity<StreamingResponseBody> toStreamingResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(forwardedHeaders(response.getHeaders()))
+                .body(out -> DataBufferUtils.write(body.publishOn(Schedulers.boundedElastic(), STREAM_PREFETCH), out)
+                        .map(DataBufferUtils::release)
+                        .blockLast());
+    }
+
+    private static HttpHeaders forwardedHeaders(HttpHeaders upstreamHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        upstreamHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.client;
+
+public enum ClientMode {
+    // RestTemplate, поток сервлета ждёт ответа сервера
+    BLOCKING,
+    // WebClient на reactor-netty, поток сервлета освобождается до ответа сервера
+    REACTIVE
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class ClientResilience {
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+
+    public ClientResilience(MeterRegistry meterRegistry,
+                            @Value("${shareit-server.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                            @Value("${shareit-server.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+                            @Value("${shareit-server.circuit-breaker.slow-call-duration:5s}") Duration slowCallDuration,
+                            @Value("${shareit-server.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+                            @Value("${shareit-server.circuit-breaker.minimum-number-of-calls:20}") int minimumNumberOfCalls,
+                            @Value("${shareit-server.circuit-breaker.wait-in-open-state:10s}") Duration waitInOpenState,
+                            @Value("${shareit-server.circuit-breaker.permitted-calls-in-half-open-state:5}") int permittedCallsInHalfOpenState,
+                            @Value("${shareit-server.bulkhead.max-concurrent-calls:50}") int maxConcurrentCalls,
+                            @Value("${shareit-server.bulkhead.max-wait:0ms}") Duration maxWait) {
+        this.meterRegistry = meterRegistry;
+
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .ignoreException(ClientResilience::isClientError)
+                .build());
+        bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build());
+
+        circuitBreakers.getEventPublisher().onEntryAdded(event -> onCircuitBreakerAdded(event.getAddedEntry()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    public <T> T call(String group, Supplier<T> call) {
+        return Bulkhead.decorateSupplier(bulkhead(group),
+                CircuitBreaker.decorateSupplier(circuitBreaker(group), call)).get();
+    }
+
+    public <T> Mono<T> call(String group, Mono<T> call) {
+        return call.transformDeferred(CircuitBreakerOperator.of(circuitBreaker(group)))
+                .transformDeferred(BulkheadOperator.of(bulkhead(group)));
+    }
+
+    public <T> Mono<ResponseEntity<Flux<T>>> callStream(String group, Mono<ResponseEntity<Flux<T>>> call) {
+        return Mono.defer(() -> {
+            StreamCall stream = new StreamCall(circuitBreaker(group), bulkhead(group));
+            return call.map(stream::track)
+                    .doOnError(stream::onError)
+                    .doOnCancel(stream::onRequestCancel);
+        });
+    }
+
+    private CircuitBreaker circuitBreaker(String group) {
+        return circuitBreakers.circuitBreaker(group);
+    }
+
+    private void onCircuitBreakerAdded(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("Circuit breaker {}: {}", circuitBreaker.getName(), event.getStateTransition());
+            meterRegistry.counter("shareit.circuitbreaker.transitions",
+                    "name", circuitBreaker.getName(),
+                    "from", event.getStateTransition().getFromState().name(),
+                    "to", event.getStateTransition().getToState().name()).increment();
+        });
+    }
+
+    private Bulkhead bulkhead(String group) {
+        return bulkheads.bulkhead(group);
+    }
+
+    private static boolean isClientError(Throwable e) {
+        if (e instanceof HttpStatusCodeException) {
+            return ((HttpStatusCodeException) e).getStatusCode().is4xxClientError();
+        }
+        if (e instanceof WebClientResponseException) {
+            return ((WebClientResponseException) e).getStatusCode().is4xxClientError();
+        }
+        return false;
+    }
+
+    // keeps the bulkhead permit and the circuit breaker call until the streamed body is read to the end;
+    // the call duration is taken at the response headers, so long exports don't count as slow calls
+    private static class StreamCall {
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile long headersReceived;
+
+        private StreamCall(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+            bulkhead.acquirePermission();
+            try {
+                circuitBreaker.acquirePermission();
+            } catch (RuntimeException e) {
+                bulkhead.onComplete();
+                throw e;
+            }
+        }
+
+        private <T> ResponseEntity<Flux<T>> track(ResponseEntity<Flux<T>> response) {
+            headersReceived = System.nanoTime();
+            Flux<T> body = response.getBody() != null ? response.getBody() : Flux.empty();
+            return new ResponseEntity<>(body.doOnComplete(this::onComplete)
+                    .doOnError(this::onError)
+                    .doOnCancel(this::onCancel), response.getHeaders(), response.getStatusCode());
+        }
+
+        private void onComplete() {
+            if (finish()) {
+                circuitBreaker.onSuccess(duration(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void onError(Throwable e) {
+            if (finish()) {
+                circuitBreaker.onError(duration(), TimeUnit.NANOSECONDS, e);
+            }
+        }
+
+        private void onRequestCancel() {
+            if (headersReceived == 0) {
+                onCancel();
+            }
+        }
+
+        private void onCancel() {
+            if (finish()) {
+                circuitBreaker.releasePermission();
+            }
+        }
+
+        private boolean finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            bulkhead.onComplete();
+            return true;
+        }
+
+        private long duration() {
+            return (headersReceived != 0 ? headersReceived : System.nanoTime()) - start;
+        }
+    }
+}
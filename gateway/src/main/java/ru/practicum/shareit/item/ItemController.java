@@ -2,9 +2,12 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exceptions.NullValidationException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -13,6 +16,9 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Locale;
 
 import static ru.practicum.shareit.Constants.HEADER_USER_ID;
 
@@ -25,7 +31,7 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> addItem(@RequestHeader(HEADER_USER_ID) long userId,
                                           @Valid @RequestBody ItemDto itemDto) {
         if (itemDto.getName() == null) {
             log.warn("Name is null!");
@@ -51,15 +57,22 @@ public class ItemController {
         return itemClient.addItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader(HEADER_USER_ID) long userId,
+                                                    InputStream items) {
+        log.info("Import items, user {}", userId);
+        return itemClient.importItems(userId, items);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(HEADER_USER_ID) long userId,
                               @PathVariable Long itemId, @Valid @RequestBody ItemDto itemDto) {
         log.info("Change item {}, user {}", itemDto, userId);
         return itemClient.updateItem(userId, itemId, itemDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> getItems(@RequestHeader(HEADER_USER_ID) long userId,
                                            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Get items by user id {}", userId);
@@ -67,23 +80,37 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader(HEADER_USER_ID) long userId,
                                           @PathVariable Long itemId) {
         log.info("Get by id {}", itemId);
         return itemClient.getItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader(HEADER_USER_ID) long userId,
+                                                  @PathVariable Long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            log.warn("Availability period start {} not before end {}", from, to);
+            throw new ValidationException("Availability period start " + from + " not before end " + to);
+        }
+
+        log.info("Get availability of item {} from {} to {}", itemId, from, to);
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam String text,
+    public Mono<ResponseEntity<Object>> search(@RequestParam String text,
                                          @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Search item by {}", text);
-        String query = text.toLowerCase();
+        String query = text.toLowerCase(Locale.ROOT);
         return itemClient.search(query, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(HEADER_USER_ID) long userId,
                                  @PathVariable Long itemId,
                                  @Valid @RequestBody CommentDto commentDto) {
         if (commentDto.getText().isBlank()) {
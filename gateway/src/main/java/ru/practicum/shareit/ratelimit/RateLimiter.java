@@ -0,0 +1,74 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimiter {
+    private final Budget read;
+    private final Budget write;
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${shareit.rate-limit.read.rate:100}") long readRate,
+                       @Value("${shareit.rate-limit.read.burst:200}") long readBurst,
+                       @Value("${shareit.rate-limit.write.rate:20}") long writeRate,
+                       @Value("${shareit.rate-limit.write.burst:50}") long writeBurst,
+                       @Value("${shareit.rate-limit.max-keys:100000}") long maxKeys,
+                       @Value("${shareit.rate-limit.idle-expiry:10m}") Duration idleExpiry) {
+        read = new Budget("read", readRate, readBurst, maxKeys, idleExpiry, meterRegistry);
+        write = new Budget("write", writeRate, writeBurst, maxKeys, idleExpiry, meterRegistry);
+    }
+
+    public long tryAcquire(String key, boolean isWrite) {
+        return (isWrite ? write : read).tryAcquire(key);
+    }
+
+    private static class Budget {
+        private final long emissionInterval;
+        private final long burst;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejected;
+
+        Budget(String name, long rate, long burst, long maxKeys, Duration idleExpiry, MeterRegistry meterRegistry) {
+            if (rate <= 0 || rate > TimeUnit.SECONDS.toNanos(1)) {
+                throw new IllegalArgumentException("shareit.rate-limit." + name + ".rate must be between 1 and "
+                        + TimeUnit.SECONDS.toNanos(1) + " requests per second, got " + rate);
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException("shareit.rate-limit." + name + ".burst must be at least 1, got "
+                        + burst);
+            }
+
+            this.emissionInterval = TimeUnit.SECONDS.toNanos(1) / rate;
+            this.burst = burst;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idleExpiry)
+                    .build();
+
+            rejected = Counter.builder("shareit.ratelimit.rejected")
+                    .tag("budget", name)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.ratelimit.buckets", buckets, Cache::estimatedSize)
+                    .tag("budget", name)
+                    .register(meterRegistry);
+        }
+
+        long tryAcquire(String key) {
+            long now = System.nanoTime();
+            long wait = buckets.get(key, k -> new TokenBucket(emissionInterval, burst, now)).tryAcquire(now);
+            if (wait > 0) {
+                rejected.increment();
+            }
+            return wait;
+        }
+    }
+}
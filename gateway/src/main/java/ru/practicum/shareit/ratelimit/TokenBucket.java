@@ -0,0 +1,29 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class TokenBucket {
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long emissionInterval, long burst, long now) {
+        this.emissionInterval = emissionInterval;
+        this.burstTolerance = emissionInterval * burst;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    long tryAcquire(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long nextArrival = Math.max(arrival, now) + emissionInterval;
+            long wait = nextArrival - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exceptions.NullValidationException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -22,7 +23,7 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItemRequest(@RequestHeader(HEADER_USER_ID) Long userId,
+    public Mono<ResponseEntity<Object>> addItemRequest(@RequestHeader(HEADER_USER_ID) Long userId,
                                          @Valid @RequestBody ItemRequestDto itemRequestDto) {
         if (itemRequestDto.getDescription() == null) {
             log.warn("Description for new request is null!");
@@ -34,13 +35,13 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnItemRequests(@RequestHeader(HEADER_USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> getOwnItemRequests(@RequestHeader(HEADER_USER_ID) Long userId) {
         log.info("Get requests by user id {}", userId);
         return itemRequestClient.getOwnItemRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getOtherItemRequests(@RequestHeader(HEADER_USER_ID) Long userId,
+    public Mono<ResponseEntity<Object>> getOtherItemRequests(@RequestHeader(HEADER_USER_ID) Long userId,
                                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Get other requests item from {}, size = {}", from, size);
@@ -48,7 +49,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequest(@RequestHeader(HEADER_USER_ID) Long userId, @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequest(@RequestHeader(HEADER_USER_ID) Long userId, @PathVariable Long requestId) {
         log.info("Get request by id {}", requestId);
         return itemRequestClient.getItemRequest(userId, requestId);
     }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.exceptions.*;
 
 import javax.validation.Valid;
@@ -19,7 +20,7 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@RequestBody @Valid User user) {
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody @Valid User user) {
         if (user == null) {
             log.warn("Request for add user is empty!");
             throw new NullValidationException("User");
@@ -39,26 +40,26 @@ public class UserController {
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId, @Valid @RequestBody User user) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long userId, @Valid @RequestBody User user) {
         log.info("Change user {}", userId, user);
 
         return userClient.updateUser(userId, user);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         log.info("Get list users.");
         return userClient.getUsers();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable Long userId) {
         log.info("Get user by id {}", userId);
         return userClient.getUser(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.info("Delete user with id {}", userId);
         return userClient.deleteUser(userId);
     }
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void zeroBurstIsRejectedAtStartup() {
+        assertThatThrownBy(() -> rateLimiter(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("shareit.rate-limit.read.burst");
+    }
+
+    @Test
+    void burstOfOnePassesOneRequestPerInterval() {
+        TokenBucket bucket = new TokenBucket(INTERVAL, 1, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(INTERVAL)).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void burstOfNPassesNRequestsAtOnce() {
+        TokenBucket bucket = new TokenBucket(INTERVAL, 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(0)).isZero();
+        }
+        assertThat(bucket.tryAcquire(0)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(INTERVAL)).isPositive();
+    }
+
+    @Test
+    void budgetsAreKeptPerKey() {
+        RateLimiter rateLimiter = rateLimiter(1);
+
+        assertThat(rateLimiter.tryAcquire("1", false)).isZero();
+        assertThat(rateLimiter.tryAcquire("1", false)).isPositive();
+        assertThat(rateLimiter.tryAcquire("2", false)).isZero();
+        assertThat(rateLimiter.tryAcquire("1", true)).isZero();
+    }
+
+    private static RateLimiter rateLimiter(long burst) {
+        return new RateLimiter(new SimpleMeterRegistry(), 1, burst, 1, burst, 100, Duration.ofMinutes(1));
+    }
+}
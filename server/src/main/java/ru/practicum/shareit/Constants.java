@@ -2,4 +2,6 @@ package ru.practicum.shareit;
 
 public class Constants {
     public static final String HEADER_USER_ID = "X-Sharer-User-Id";
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+    public static final String HEADER_SQL_STATEMENTS = "X-Sql-Statements";
 }
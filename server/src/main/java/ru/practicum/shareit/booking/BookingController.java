@@ -2,12 +2,20 @@ package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.Range;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 
 import java.util.List;
 
+import static ru.practicum.shareit.Constants.HEADER_NEXT_CURSOR;
 import static ru.practicum.shareit.Constants.HEADER_USER_ID;
 
 @Slf4j
@@ -24,6 +32,13 @@ public class BookingController {
         return bookingService.addBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResult> addBookings(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                @RequestBody List<BookingDto> bookingsDto) {
+        log.info("Add {} new bookings, user {}", bookingsDto.size(), userId);
+        return bookingService.addBookings(userId, bookingsDto);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto setApprove(@RequestHeader(HEADER_USER_ID) Long userId,
                                  @PathVariable Long bookingId,
@@ -40,20 +55,64 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookingsByState(@RequestHeader(HEADER_USER_ID) Long userId,
-                                               @RequestParam String state,
-                                               @RequestParam Integer from,
-                                               @RequestParam Integer size) {
+    public ResponseEntity<List<BookingDto>> getBookingsByState(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                               @RequestParam String state,
+                                                               @RequestParam(defaultValue = "0") Integer from,
+                                                               @RequestParam Integer size,
+                                                               @RequestParam(required = false) String cursor) {
         log.info("Get booking by user id {}, state {}", userId, state);
-        return bookingService.getBookings(userId, state, Range.of(from, size));
+        if (cursor != null) {
+            return toResponse(bookingService.getBookings(userId, state, cursor, size));
+        }
+        return ResponseEntity.ok(bookingService.getBookings(userId, state, Range.of(from, size)));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookings(@RequestHeader(HEADER_USER_ID) Long userId,
-                                        @RequestParam String state,
-                                        @RequestParam Integer from,
-                                        @RequestParam Integer size) {
+    public ResponseEntity<List<BookingDto>> getBookings(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                        @RequestParam String state,
+                                                        @RequestParam(defaultValue = "0") Integer from,
+                                                        @RequestParam Integer size,
+                                                        @RequestParam(required = false) String cursor) {
         log.info("Get owner bookings, owner id {}", userId);
-        return bookingService.getOwnerBookings(userId, state, Range.of(from, size));
+        if (cursor != null) {
+            return toResponse(bookingService.getOwnerBookings(userId, state, cursor, size));
+        }
+        return ResponseEntity.ok(bookingService.getOwnerBookings(userId, state, Range.of(from, size)));
+    }
+
+    @ExportEndpoint
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                                @RequestParam(defaultValue = "ALL") String state,
+                                                                @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        log.info("Export bookings of user {}, state {}, format {}", userId, state, format);
+        return toExportResponse(format, bookingService.exportBookings(userId, state, format));
+    }
+
+    @ExportEndpoint
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                                     @RequestParam(defaultValue = "ALL") String state,
+                                                                     @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        log.info("Export owner bookings, owner id {}, state {}, format {}", userId, state, format);
+        return toExportResponse(format, bookingService.exportOwnerBookings(userId, state, format));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> toExportResponse(ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bookings." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private static ResponseEntity<List<BookingDto>> toResponse(BookingPage bookingPage) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookingPage.getNextCursor() != null) {
+            response.header(HEADER_NEXT_CURSOR, bookingPage.getNextCursor());
+        }
+        return response.body(bookingPage.getBookings());
     }
 }
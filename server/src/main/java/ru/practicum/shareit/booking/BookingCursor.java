@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingListRow;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+@Data
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+    private static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime end;
+    private final Long id;
+
+    public static BookingCursor of(BookingListRow booking) {
+        return new BookingCursor(booking.getEnd(), booking.getId());
+    }
+
+    public static BookingCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Bad cursor " + cursor);
+        }
+    }
+
+    public String encode() {
+        String value = end + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public interface BookingExportRepository {
+    void exportByBooker(Long bookerId, String state, LocalDateTime now, Consumer<BookingExportRow> consumer);
+
+    void exportByItemOwner(Long ownerId, String state, LocalDateTime now, Consumer<BookingExportRow> consumer);
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+import ru.practicum.shareit.booking.model.enums.Status;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class BookingExportRepositoryImpl implements BookingExportRepository {
+    private static final String SELECT_BOOKINGS = "SELECT b.id, b.start_date, b.end_date, b.status, " +
+            "i.id AS item_id, i.name AS item_name, u.id AS booker_id, u.name AS booker_name " +
+            "FROM bookings b JOIN items i ON i.id = b.item_id JOIN users u ON u.id = b.booker_id ";
+    private static final String ORDER_BY_END = " ORDER BY b.end_date DESC, b.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public BookingExportRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                       @Value("${shareit.booking.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByBooker(Long bookerId, String state, LocalDateTime now, Consumer<BookingExportRow> consumer) {
+        export("b.booker_id = ?", bookerId, state, now, consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByItemOwner(Long ownerId, String state, LocalDateTime now, Consumer<BookingExportRow> consumer) {
+        export("i.owner_id = ?", ownerId, state, now, consumer);
+    }
+
+    private void export(String userCondition, Long userId, String state, LocalDateTime now,
+                        Consumer<BookingExportRow> consumer) {
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(userId);
+        String sql = SELECT_BOOKINGS + "WHERE " + userCondition + stateCondition(state, Timestamp.valueOf(now), parameters)
+                + ORDER_BY_END;
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(new BookingExportRow(
+                resultSet.getLong("id"),
+                resultSet.getTimestamp("start_date").toLocalDateTime(),
+                resultSet.getTimestamp("end_date").toLocalDateTime(),
+                Status.valueOf(resultSet.getString("status")),
+                resultSet.getLong("item_id"),
+                resultSet.getString("item_name"),
+                resultSet.getLong("booker_id"),
+                resultSet.getString("booker_name")
+        )));
+    }
+
+    private static String stateCondition(String state, Timestamp now, List<Object> parameters) {
+        switch (state) {
+            case "ALL":
+                return "";
+            case "CURRENT":
+                parameters.add(now);
+                parameters.add(now);
+                return " AND b.start_date < ? AND b.end_date > ?";
+            case "PAST":
+                parameters.add(now);
+                return " AND b.end_date < ?";
+            case "FUTURE":
+                parameters.add(now);
+                return " AND b.start_date > ?";
+            case "WAITING":
+            case "REJECTED":
+                parameters.add(state);
+                return " AND b.status = ?";
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+abstract class BookingExportWriter {
+    abstract void write(BookingExportRow row) throws IOException;
+
+    abstract void finish() throws IOException;
+
+    static BookingExportWriter of(ExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        switch (format) {
+            case CSV:
+                return new CsvWriter(out);
+            case NDJSON:
+            default:
+                return new NdjsonWriter(out, objectMapper);
+        }
+    }
+
+    private static class NdjsonWriter extends BookingExportWriter {
+        private final SequenceWriter writer;
+
+        NdjsonWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            writer = objectMapper.writerFor(BookingExportRow.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+        }
+
+        @Override
+        void write(BookingExportRow row) throws IOException {
+            writer.write(row);
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static class CsvWriter extends BookingExportWriter {
+        private static final String HEADER = "id,start,end,status,item_id,item_name,booker_id,booker_name";
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        void write(BookingExportRow row) throws IOException {
+            writer.write(row.getId() + "," + row.getStart() + "," + row.getEnd() + "," + row.getStatus() + ","
+                    + row.getItemId() + "," + escape(row.getItemName()) + ","
+                    + row.getBookerId() + "," + escape(row.getBookerName()) + "\r\n");
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            // spreadsheets evaluate cells starting with these as formulas
+            if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+    }
+}
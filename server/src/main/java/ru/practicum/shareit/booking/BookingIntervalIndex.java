@@ -0,0 +1,271 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.DateUtils;
+import ru.practicum.shareit.booking.dto.BookingSpan;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.dto.TimeSlot;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    private static final Set<Status> ACTIVE = EnumSet.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final boolean overlapCheck;
+
+    // the write lock is for changes across items, single items are changed under the read lock and their own lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedBooking> indexedBookings = new ConcurrentHashMap<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.overlap-check:false}") boolean overlapCheck) {
+        this.bookingRepository = bookingRepository;
+        this.overlapCheck = overlapCheck;
+    }
+
+    // bookings that have ended can't overlap new ones, they are left out and pruned as items get new bookings
+    @PostConstruct
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            indexedBookings.clear();
+            for (BookingSpan span : bookingRepository.findSpansByStatusInAndEndAfter(ACTIVE, DateUtils.now())) {
+                IntervalTree.Interval interval = new IntervalTree.Interval(span.getId(), span.getStart(), span.getEnd());
+                item(span.getItemId()).tree.insert(interval);
+                indexedBookings.put(span.getId(),
+                        new IndexedBooking(interval, span.getItemId(), span.getBookerId(), span.getOwnerId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Booking interval index built: {} bookings, {} items", indexedBookings.size(), items.size());
+    }
+
+    // the database has already deleted the bookings of the user and of their items
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        Long userId = event.getUserId();
+        int removed = 0;
+
+        lock.writeLock().lock();
+        try {
+            Iterator<IndexedBooking> iterator = indexedBookings.values().iterator();
+            while (iterator.hasNext()) {
+                IndexedBooking booking = iterator.next();
+                if (userId.equals(booking.getBookerId()) || userId.equals(booking.getOwnerId())) {
+                    items.get(booking.getItemId()).tree.remove(booking.getInterval());
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            items.values().removeIf(item -> item.tree.size() == 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Removed {} bookings of deleted user {} from the interval index", removed, userId);
+    }
+
+    public Booking save(Booking booking, Supplier<Booking> saver) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime now = DateUtils.now();
+
+        lock.readLock().lock();
+        try {
+            ItemIntervals item = item(itemId);
+            // a lock, not a monitor: the save is a database round trip, a virtual thread mustn't pin its carrier
+            item.lock.lock();
+            try {
+                IntervalTree tree = item.tree;
+                boolean active = ACTIVE.contains(booking.getStatus()) && booking.getEnd().isAfter(now);
+                boolean indexed = booking.getId() != null && indexedBookings.containsKey(booking.getId());
+
+                if (overlapCheck && active && !indexed && tree.overlaps(booking.getStart(), booking.getEnd())) {
+                    throw overlapConflict(booking);
+                }
+
+                Booking savedBooking = saver.get();
+
+                if (active && !indexed) {
+                    prune(tree, now);
+                    index(tree, savedBooking);
+                } else if (!active && indexed) {
+                    tree.remove(indexedBookings.remove(savedBooking.getId()).getInterval());
+                }
+
+                return savedBooking;
+            } finally {
+                item.lock.unlock();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Booking> saveAll(List<Booking> bookings, Consumer<List<Booking>> saver,
+                                 BiConsumer<Booking, ConflictException> onConflict) {
+        List<Booking> accepted = new ArrayList<>();
+        List<IntervalTree.Interval> reserved = new ArrayList<>();
+        List<ItemIntervals> reservedItems = new ArrayList<>();
+
+        // accepted intervals are reserved under negative ids, so concurrent saves see them while the batch is inserted
+        lock.writeLock().lock();
+        try {
+            for (Booking booking : bookings) {
+                ItemIntervals item = item(booking.getItem().getId());
+                if (overlapCheck && item.tree.overlaps(booking.getStart(), booking.getEnd())) {
+                    onConflict.accept(booking, overlapConflict(booking));
+                    continue;
+                }
+                IntervalTree.Interval reservation = new IntervalTree.Interval(reservationIds.decrementAndGet(),
+                        booking.getStart(), booking.getEnd());
+                item.tree.insert(reservation);
+                reserved.add(reservation);
+                reservedItems.add(item);
+                accepted.add(booking);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+
+        boolean saved = false;
+        try {
+            saver.accept(accepted);
+            saved = true;
+        } finally {
+            LocalDateTime now = DateUtils.now();
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < accepted.size(); i++) {
+                    Booking booking = accepted.get(i);
+                    ItemIntervals item = item(booking.getItem().getId());
+                    // after a rebuild the reservation is gone and the saved booking may already be indexed
+                    if (item == reservedItems.get(i)) {
+                        item.tree.remove(reserved.get(i));
+                    }
+                    if (saved && !indexedBookings.containsKey(booking.getId())) {
+                        prune(item.tree, now);
+                        index(item.tree, booking);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return accepted;
+    }
+
+    public List<TimeSlot> busy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<TimeSlot> busy = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            ItemIntervals item = items.get(itemId);
+            if (item == null) {
+                return busy;
+            }
+
+            item.lock.lock();
+            try {
+                TimeSlot last = null;
+                for (IntervalTree.Interval interval : item.tree.overlapping(from, to)) {
+                    if (last != null && !interval.getStart().isAfter(last.getEnd())) {
+                        if (interval.getEnd().isAfter(last.getEnd())) {
+                            last.setEnd(interval.getEnd());
+                        }
+                    } else {
+                        last = new TimeSlot(interval.getStart(), interval.getEnd());
+                        busy.add(last);
+                    }
+                }
+            } finally {
+                item.lock.unlock();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (TimeSlot slot : busy) {
+            if (slot.getStart().isBefore(from)) {
+                slot.setStart(from);
+            }
+            if (slot.getEnd().isAfter(to)) {
+                slot.setEnd(to);
+            }
+        }
+        return busy;
+    }
+
+    private static ConflictException overlapConflict(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        log.warn("Item " + itemId + " already booked for " + booking.getStart() + " - " + booking.getEnd());
+        return new ConflictException("Item " + itemId + " already booked for "
+                + booking.getStart() + " - " + booking.getEnd());
+    }
+
+    private void index(IntervalTree tree, Booking booking) {
+        IntervalTree.Interval interval = new IntervalTree.Interval(booking.getId(), booking.getStart(),
+                booking.getEnd());
+        tree.insert(interval);
+        indexedBookings.put(booking.getId(), new IndexedBooking(interval, booking.getItem().getId(),
+                booking.getBooker().getId(), booking.getItem().getOwner().getId()));
+    }
+
+    // reservations of batches in progress aren't indexed bookings, they stay until their batch removes them
+    private void prune(IntervalTree tree, LocalDateTime now) {
+        for (IntervalTree.Interval interval : tree.overlapping(LocalDateTime.MIN, now)) {
+            if (!interval.getEnd().isAfter(now) && indexedBookings.remove(interval.getId()) != null) {
+                tree.remove(interval);
+            }
+        }
+    }
+
+    private ItemIntervals item(Long itemId) {
+        return items.computeIfAbsent(itemId, id -> new ItemIntervals());
+    }
+
+    private static class ItemIntervals {
+        private final Lock lock = new ReentrantLock();
+        private final IntervalTree tree = new IntervalTree();
+    }
+
+    @Data
+    private static class IndexedBooking {
+        private final IntervalTree.Interval interval;
+        private final Long itemId;
+        private final Long bookerId;
+        private final Long ownerId;
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListRow;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -47,4 +49,34 @@ public class BookingMapper {
 
         return bookingsDto;
     }
+
+    public static BookingDto toBookingDto(BookingListRow row) {
+        ItemDto itemDto = new ItemDto();
+
+        itemDto.setId(row.getItemId());
+        itemDto.setName(row.getItemName());
+        itemDto.setDescription(row.getItemDescription());
+        itemDto.setAvailable(row.getItemAvailable());
+        itemDto.setRequestId(row.getItemRequestId());
+
+        return new BookingDto(
+                row.getId(),
+                row.getStart(),
+                row.getEnd(),
+                row.getItemId(),
+                itemDto,
+                new User(row.getBookerId(), row.getBookerName(), row.getBookerEmail()),
+                row.getStatus()
+        );
+    }
+
+    public static List<BookingDto> toBookingsDto(List<BookingListRow> rows) {
+        List<BookingDto> bookingsDto = new ArrayList<>(rows.size());
+
+        for (BookingListRow row : rows) {
+            bookingsDto.add(BookingMapper.toBookingDto(row));
+        }
+
+        return bookingsDto;
+    }
 }
@@ -1,63 +1,133 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingListRow;
+import ru.practicum.shareit.booking.dto.BookingNeighbour;
+import ru.practicum.shareit.booking.dto.BookingSpan;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.enums.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface BookingRepository extends PagingAndSortingRepository<Booking, Long> {
+public interface BookingRepository extends PagingAndSortingRepository<Booking, Long>, BookingBatchRepository,
+        BookingExportRepository {
+    String AFTER_CURSOR = "(b.end < :end or (b.end = :end and b.id < :id))";
+    String LIST_ROW = "select new ru.practicum.shareit.booking.dto.BookingListRow(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u ";
 
     List<Booking> findByBookerOrderByStartDesc(User booker);
 
-    Page<Booking> findByBooker(User booker, Pageable pageable);
+    @Query(LIST_ROW + "where b.booker = :user")
+    List<BookingListRow> findByBooker(@Param("user") User booker, Pageable pageable);
 
     List<Booking> findByBookerAndStatusIs(User booker, Status status);
 
-    Page<Booking> findByBookerAndStatusIs(User booker, Status status, Pageable pageable);
+    @Query(LIST_ROW + "where b.booker = :user and b.status = :status")
+    List<BookingListRow> findByBookerAndStatusIs(@Param("user") User booker, @Param("status") Status status, Pageable pageable);
 
     List<Booking> findByItemAndBookerAndStatusEqualsAndStartIsBefore(Item item, User booker, Status status, LocalDateTime now);
 
     List<Booking> findByBookerAndStartIsBeforeAndEndIsAfterOrderByEndDesc(User booker, LocalDateTime now1, LocalDateTime now2);
 
-    Page<Booking> findByBookerAndStartIsBeforeAndEndIsAfter(User booker, LocalDateTime now1, LocalDateTime now2, Pageable pageable);
+    @Query(LIST_ROW + "where b.booker = :user and b.start < :now and b.end > :now")
+    List<BookingListRow> findByBookerCurrent(@Param("user") User booker, @Param("now") LocalDateTime now, Pageable pageable);
 
     List<Booking> findByBookerAndEndIsBeforeOrderByEndDesc(User booker, LocalDateTime now);
 
-    Page<Booking> findByBookerAndEndIsBefore(User booker, LocalDateTime now, Pageable pageable);
+    @Query(LIST_ROW + "where b.booker = :user and b.end < :now")
+    List<BookingListRow> findByBookerPast(@Param("user") User booker, @Param("now") LocalDateTime now, Pageable pageable);
 
     List<Booking> findByBookerAndStartIsAfterOrderByEndDesc(User booker, LocalDateTime now);
 
-    Page<Booking> findByBookerAndStartIsAfter(User booker, LocalDateTime now, Pageable pageable);
+    @Query(LIST_ROW + "where b.booker = :user and b.start > :now")
+    List<BookingListRow> findByBookerFuture(@Param("user") User booker, @Param("now") LocalDateTime now, Pageable pageable);
 
     List<Booking> findByItemOwnerOrderByStartDesc(User owner);
 
-    Page<Booking> findByItemOwner(User owner, Pageable pageable);
+    @Query(LIST_ROW + "where i.owner = :user")
+    List<BookingListRow> findByItemOwner(@Param("user") User owner, Pageable pageable);
 
     List<Booking> findByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByEndDesc(User owner, LocalDateTime now1, LocalDateTime now2);
 
-    Page<Booking> findByItemOwnerAndStartIsBeforeAndEndIsAfter(User owner, LocalDateTime now1, LocalDateTime now2, Pageable pageable);
+    @Query(LIST_ROW + "where i.owner = :user and b.start < :now and b.end > :now")
+    List<BookingListRow> findByItemOwnerCurrent(@Param("user") User owner, @Param("now") LocalDateTime now, Pageable pageable);
 
     List<Booking> findByItemOwnerAndEndIsBeforeOrderByEndDesc(User owner, LocalDateTime now);
 
-    Page<Booking> findByItemOwnerAndEndIsBefore(User owner, LocalDateTime now, Pageable pageable);
+    @Query(LIST_ROW + "where i.owner = :user and b.end < :now")
+    List<BookingListRow> findByItemOwnerPast(@Param("user") User owner, @Param("now") LocalDateTime now, Pageable pageable);
 
     List<Booking> findByItemOwnerAndStartIsAfterOrderByEndDesc(User owner, LocalDateTime now);
 
-    Page<Booking> findByItemOwnerAndStartIsAfter(User owner, LocalDateTime now, Pageable pageable);
+    @Query(LIST_ROW + "where i.owner = :user and b.start > :now")
+    List<BookingListRow> findByItemOwnerFuture(@Param("user") User owner, @Param("now") LocalDateTime now, Pageable pageable);
 
     List<Booking> findByItemOwnerAndStatusIs(User owner, Status status);
 
-    Page<Booking> findByItemOwnerAndStatusIs(User owner, Status status, Pageable pageable);
-
-    List<Booking> findByItemAndStartIsBeforeOrderByEndDesc(Item item, LocalDateTime end);
-
-    List<Booking> findByItemAndStartIsAfterOrderByStartAsc(Item item, LocalDateTime start);
+    @Query(LIST_ROW + "where i.owner = :user and b.status = :status")
+    List<BookingListRow> findByItemOwnerAndStatusIs(@Param("user") User owner, @Param("status") Status status, Pageable pageable);
 
     List<Booking> findByItemOrderByEndDesc(Item item);
+
+    @Query(LIST_ROW + "where b.booker = :user and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByBookerAfter(@Param("user") User booker, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_ROW + "where b.booker = :user and b.start < :now and b.end > :now and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByBookerCurrentAfter(@Param("user") User booker, @Param("now") LocalDateTime now, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_ROW + "where b.booker = :user and b.end < :now and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByBookerPastAfter(@Param("user") User booker, @Param("now") LocalDateTime now, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_ROW + "where b.booker = :user and b.start > :now and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByBookerFutureAfter(@Param("user") User booker, @Param("now") LocalDateTime now, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_ROW + "where b.booker = :user and b.status = :status and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByBookerStatusAfter(@Param("user") User booker, @Param("status") Status status, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_ROW + "where i.owner = :user and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByItemOwnerAfter(@Param("user") User owner, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_ROW + "where i.owner = :user and b.start < :now and b.end > :now and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByItemOwnerCurrentAfter(@Param("user") User owner, @Param("now") LocalDateTime now, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_ROW + "where i.owner = :user and b.end < :now and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByItemOwnerPastAfter(@Param("user") User owner, @Param("now") LocalDateTime now, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_ROW + "where i.owner = :user and b.start > :now and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByItemOwnerFutureAfter(@Param("user") User owner, @Param("now") LocalDateTime now, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_ROW + "where i.owner = :user and b.status = :status and " + AFTER_CURSOR)
+    Slice<BookingListRow> findByItemOwnerStatusAfter(@Param("user") User owner, @Param("status") Status status, @Param("end") LocalDateTime end, @Param("id") Long id, Pageable pageable);
+
+    @Query("select b.id as id, i.id as itemId, b.booker.id as bookerId, i.owner.id as ownerId, " +
+            "b.start as start, b.end as end " +
+            "from Booking b join b.item i where b.status in :statuses and b.end > :now")
+    List<BookingSpan> findSpansByStatusInAndEndAfter(@Param("statuses") Collection<Status> statuses,
+                                                     @Param("now") LocalDateTime now);
+
+    // camelCase aliases are quoted: postgres folds them to lowercase and the projection
+    // lookup lowercases with the default locale, which breaks "itemId" on a turkish jvm
+    @Query(value = "SELECT n.position AS position, n.id AS id, n.item_id AS \"itemId\", n.booker_id AS \"bookerId\" " +
+            "FROM (" +
+            "SELECT 'LAST' AS position, b.id, b.item_id, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC, b.id DESC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date < :now " +
+            "UNION ALL " +
+            "SELECT 'NEXT' AS position, b.id, b.item_id, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC, b.id ASC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date > :now" +
+            ") n " +
+            "WHERE n.rn = 1", nativeQuery = true)
+    List<BookingNeighbour> findNeighbours(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
 }
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.Range;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 
 import java.util.List;
 
@@ -9,6 +12,8 @@ public interface BookingService {
 
     BookingDto addBooking(Long userId, BookingDto booking);
 
+    List<BookingBatchResult> addBookings(Long userId, List<BookingDto> bookings);
+
     BookingDto setApprove(Long userId, Long bookingId, Boolean approved);
 
     BookingDto getBookingDto(Long userId, Long itemId);
@@ -16,4 +21,12 @@ public interface BookingService {
     List<BookingDto> getBookings(Long userId, String state, Range range);
 
     List<BookingDto> getOwnerBookings(Long userId, String state, Range range);
+
+    BookingPage getBookings(Long userId, String state, String cursor, Integer size);
+
+    BookingPage getOwnerBookings(Long userId, String state, String cursor, Integer size);
+
+    StreamingResponseBody exportBookings(Long userId, String state, ExportFormat format);
+
+    StreamingResponseBody exportOwnerBookings(Long userId, String state, ExportFormat format);
 }
@@ -1,20 +1,33 @@
 package ru.practicum.shareit.booking;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.DateUtils;
 import ru.practicum.shareit.Range;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+import ru.practicum.shareit.booking.dto.BookingListRow;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.enums.Status;
 import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.ForbiddenException;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.NullValidationException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemServiceImpl;
@@ -23,45 +36,115 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserServiceImpl;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Sort SORT_BY_END_AND_ID = Sort.by(Sort.Direction.DESC, "end", "id");
+    private static final Set<String> EXPORT_STATES = Set.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
 
     private final BookingRepository bookingRepository;
     private final ItemServiceImpl itemService;
     private final UserServiceImpl userService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ObjectMapper objectMapper;
+
+    @Value("${shareit.booking.batch-max-size:100}")
+    private int batchMaxSize;
 
     @Override
     public BookingDto addBooking(Long userId, BookingDto bookingDto) {
         User user = userService.getUser(userId);
         Item item = itemService.getItem(bookingDto.getItemId());
 
-        Booking booking = BookingMapper.toBooking(bookingDto);
+        Booking booking = newBooking(user, item, bookingDto);
 
-        booking.setBooker(user);
-        booking.setItem(item);
-        booking.setStatus(Status.WAITING);
+        Booking addedBooking = bookingIntervalIndex.save(booking, () -> bookingRepository.save(booking));
 
-        if (!item.isAvailable()) {
-            log.warn("Item " + bookingDto.getItemId() + " not available!");
-            throw new ValidationException("Item " + bookingDto.getItemId() + " not available!");
+        ItemDto itemDto = ItemMapper.toItemDto(item);
+
+        return BookingMapper.toBookingDto(addedBooking, itemDto);
+    }
+
+    @Override
+    public List<BookingBatchResult> addBookings(Long userId, List<BookingDto> bookingsDto) {
+        if (bookingsDto.isEmpty() || bookingsDto.size() > batchMaxSize) {
+            log.warn("Batch size " + bookingsDto.size() + " out of 1.." + batchMaxSize);
+            throw new ValidationException("Batch size " + bookingsDto.size() + " out of 1.." + batchMaxSize);
         }
 
-        if (item.getOwner().equals(user)) {
-            log.warn("Not found item " + bookingDto.getItemId());
-            throw new ItemNotFoundException(bookingDto.getItemId());
+        User user = userService.getUser(userId);
+        Map<Long, Item> items = itemService.getItems(bookingsDto.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        BookingBatchResult[] results = new BookingBatchResult[bookingsDto.size()];
+        Map<Booking, Integer> positions = new IdentityHashMap<>();
+        List<Booking> bookings = new ArrayList<>();
+
+        for (int i = 0; i < bookingsDto.size(); i++) {
+            BookingDto bookingDto = bookingsDto.get(i);
+            try {
+                if (bookingDto == null) {
+                    log.warn("Booking " + i + " of the batch is null");
+                    throw new NullValidationException("Booking");
+                }
+                validateDates(bookingDto);
+
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    log.warn("Not found item " + bookingDto.getItemId());
+                    throw new ItemNotFoundException(bookingDto.getItemId() == null ? 0 : bookingDto.getItemId());
+                }
+
+                Booking booking = newBooking(user, item, bookingDto);
+                booking.setId(null);
+                bookings.add(booking);
+                positions.put(booking, i);
+            } catch (ValidationException | NotFoundException e) {
+                results[i] = failed(e);
+            }
         }
 
-        Booking addedBooking = bookingRepository.save(booking);
+        List<Booking> addedBookings;
+        try {
+            addedBookings = bookingIntervalIndex.saveAll(bookings, bookingRepository::insertAll,
+                    (booking, e) -> results[positions.get(booking)] = failed(e));
+        } catch (DataAccessException e) {
+            log.warn("Can't save batch of " + bookings.size() + " bookings: " + e.getMessage());
+            for (Booking booking : bookings) {
+                int position = positions.get(booking);
+                if (results[position] == null) {
+                    results[position] = failed(new ConflictException("Booking for item "
+                            + booking.getItem().getId() + " didn't save!"));
+                }
+            }
+            return Arrays.asList(results);
+        }
 
-        ItemDto itemDto = ItemMapper.toItemDto(item);
+        for (Booking booking : addedBookings) {
+            ItemDto itemDto = ItemMapper.toItemDto(booking.getItem());
+            results[positions.get(booking)] = new BookingBatchResult(HttpStatus.OK.value(),
+                    BookingMapper.toBookingDto(booking, itemDto), null);
+        }
 
-        return BookingMapper.toBookingDto(addedBooking, itemDto);
+        return Arrays.asList(results);
     }
 
     @Override
@@ -88,7 +171,7 @@ public class BookingServiceImpl implements BookingService {
                 booking.setStatus(Status.REJECTED);
             }
 
-            Booking addedBooking = bookingRepository.save(booking);
+            Booking addedBooking = bookingIntervalIndex.save(booking, () -> bookingRepository.save(booking));
 
             if (!addedBooking.equals(booking)) {
                 log.warn("Can't approve booking " + booking.getId());
@@ -119,6 +202,7 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<BookingDto> getBookings(Long userId, String state, Range range) {
         LocalDateTime timeNow = DateUtils.now();
@@ -130,34 +214,35 @@ public class BookingServiceImpl implements BookingService {
         int newFrom = range.getFrom() / range.getSize();
         Pageable page = PageRequest.of(newFrom, range.getSize(), sortByEnd);
 
-        Page<Booking> bookingsPage;
+        List<BookingListRow> bookings;
         switch (state) {
             case "ALL":
-                bookingsPage = bookingRepository.findByBooker(user, page);
+                bookings = bookingRepository.findByBooker(user, page);
                 break;
             case "CURRENT":
-                bookingsPage = bookingRepository.findByBookerAndStartIsBeforeAndEndIsAfter(user, timeNow, timeNow, page);
+                bookings = bookingRepository.findByBookerCurrent(user, timeNow, page);
                 break;
             case "PAST":
-                bookingsPage = bookingRepository.findByBookerAndEndIsBefore(user, timeNow, page);
+                bookings = bookingRepository.findByBookerPast(user, timeNow, page);
                 break;
             case "FUTURE":
-                bookingsPage = bookingRepository.findByBookerAndStartIsAfter(user, timeNow, page);
+                bookings = bookingRepository.findByBookerFuture(user, timeNow, page);
                 break;
             case "WAITING":
-                bookingsPage = bookingRepository.findByBookerAndStatusIs(user, Status.WAITING, page);
+                bookings = bookingRepository.findByBookerAndStatusIs(user, Status.WAITING, page);
                 break;
             case "REJECTED":
-                bookingsPage = bookingRepository.findByBookerAndStatusIs(user, Status.REJECTED, page);
+                bookings = bookingRepository.findByBookerAndStatusIs(user, Status.REJECTED, page);
                 break;
             default:
                 log.warn("Unknown state: UNSUPPORTED_STATUS");
                 throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
 
-        return BookingMapper.toListBookingDto(bookingsPage.getContent());
+        return BookingMapper.toBookingsDto(bookings);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<BookingDto> getOwnerBookings(Long userId, String state, Range range) {
 
@@ -170,32 +255,210 @@ public class BookingServiceImpl implements BookingService {
         int newFrom = range.getFrom() / range.getSize();
         Pageable page = PageRequest.of(newFrom, range.getSize(), sortByEnd);
 
-        Page<Booking> bookingsPage;
+        List<BookingListRow> bookings;
+        switch (state) {
+            case "ALL":
+                bookings = bookingRepository.findByItemOwner(user, page);
+                break;
+            case "CURRENT":
+                bookings = bookingRepository.findByItemOwnerCurrent(user, timeNow, page);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findByItemOwnerPast(user, timeNow, page);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findByItemOwnerFuture(user, timeNow, page);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findByItemOwnerAndStatusIs(user, Status.WAITING, page);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findByItemOwnerAndStatusIs(user, Status.REJECTED, page);
+                break;
+            default:
+                log.warn("Unknown state: UNSUPPORTED_STATUS");
+                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
+
+        return BookingMapper.toBookingsDto(bookings);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingPage getBookings(Long userId, String state, String cursor, Integer size) {
+        LocalDateTime timeNow = DateUtils.now();
+
+        User user = userService.getUser(userId);
+
+        BookingCursor after = BookingCursor.decode(cursor);
+        Pageable page = PageRequest.of(0, size, SORT_BY_END_AND_ID);
+
+        Slice<BookingListRow> bookingsSlice;
+        switch (state) {
+            case "ALL":
+                bookingsSlice = bookingRepository.findByBookerAfter(user, after.getEnd(), after.getId(), page);
+                break;
+            case "CURRENT":
+                bookingsSlice = bookingRepository.findByBookerCurrentAfter(user, timeNow, after.getEnd(), after.getId(), page);
+                break;
+            case "PAST":
+                bookingsSlice = bookingRepository.findByBookerPastAfter(user, timeNow, after.getEnd(), after.getId(), page);
+                break;
+            case "FUTURE":
+                bookingsSlice = bookingRepository.findByBookerFutureAfter(user, timeNow, after.getEnd(), after.getId(), page);
+                break;
+            case "WAITING":
+                bookingsSlice = bookingRepository.findByBookerStatusAfter(user, Status.WAITING, after.getEnd(), after.getId(), page);
+                break;
+            case "REJECTED":
+                bookingsSlice = bookingRepository.findByBookerStatusAfter(user, Status.REJECTED, after.getEnd(), after.getId(), page);
+                break;
+            default:
+                log.warn("Unknown state: UNSUPPORTED_STATUS");
+                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
+
+        return toBookingPage(bookingsSlice);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingPage getOwnerBookings(Long userId, String state, String cursor, Integer size) {
+        LocalDateTime timeNow = DateUtils.now();
+
+        User user = userService.getUser(userId);
+
+        BookingCursor after = BookingCursor.decode(cursor);
+        Pageable page = PageRequest.of(0, size, SORT_BY_END_AND_ID);
+
+        Slice<BookingListRow> bookingsSlice;
         switch (state) {
             case "ALL":
-                bookingsPage = bookingRepository.findByItemOwner(user, page);
+                bookingsSlice = bookingRepository.findByItemOwnerAfter(user, after.getEnd(), after.getId(), page);
                 break;
             case "CURRENT":
-                bookingsPage = bookingRepository.findByItemOwnerAndStartIsBeforeAndEndIsAfter(user, timeNow, timeNow, page);
+                bookingsSlice = bookingRepository.findByItemOwnerCurrentAfter(user, timeNow, after.getEnd(), after.getId(), page);
                 break;
             case "PAST":
-                bookingsPage = bookingRepository.findByItemOwnerAndEndIsBefore(user, timeNow, page);
+                bookingsSlice = bookingRepository.findByItemOwnerPastAfter(user, timeNow, after.getEnd(), after.getId(), page);
                 break;
             case "FUTURE":
-                bookingsPage = bookingRepository.findByItemOwnerAndStartIsAfter(user, timeNow, page);
+                bookingsSlice = bookingRepository.findByItemOwnerFutureAfter(user, timeNow, after.getEnd(), after.getId(), page);
                 break;
             case "WAITING":
-                bookingsPage = bookingRepository.findByItemOwnerAndStatusIs(user, Status.WAITING, page);
+                bookingsSlice = bookingRepository.findByItemOwnerStatusAfter(user, Status.WAITING, after.getEnd(), after.getId(), page);
                 break;
             case "REJECTED":
-                bookingsPage = bookingRepository.findByItemOwnerAndStatusIs(user, Status.REJECTED, page);
+                bookingsSlice = bookingRepository.findByItemOwnerStatusAfter(user, Status.REJECTED, after.getEnd(), after.getId(), page);
                 break;
             default:
                 log.warn("Unknown state: UNSUPPORTED_STATUS");
                 throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
 
-        return BookingMapper.toListBookingDto(bookingsPage.getContent());
+        return toBookingPage(bookingsSlice);
+    }
+
+    @Override
+    public StreamingResponseBody exportBookings(Long userId, String state, ExportFormat format) {
+        User user = userService.getUser(userId);
+        checkExportState(state);
+        LocalDateTime timeNow = DateUtils.now();
+
+        return out -> export(BookingExportWriter.of(format, out, objectMapper),
+                rows -> bookingRepository.exportByBooker(user.getId(), state, timeNow, rows));
+    }
+
+    @Override
+    public StreamingResponseBody exportOwnerBookings(Long userId, String state, ExportFormat format) {
+        User user = userService.getUser(userId);
+        checkExportState(state);
+        LocalDateTime timeNow = DateUtils.now();
+
+        return out -> export(BookingExportWriter.of(format, out, objectMapper),
+                rows -> bookingRepository.exportByItemOwner(user.getId(), state, timeNow, rows));
+    }
+
+    private static void checkExportState(String state) {
+        if (!EXPORT_STATES.contains(state)) {
+            log.warn("Unknown state: UNSUPPORTED_STATUS");
+            throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
+    }
+
+    private static void export(BookingExportWriter writer, Consumer<Consumer<BookingExportRow>> query) throws IOException {
+        try {
+            query.accept(row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    private Booking newBooking(User user, Item item, BookingDto bookingDto) {
+        Booking booking = BookingMapper.toBooking(bookingDto);
+
+        booking.setBooker(user);
+        booking.setItem(item);
+        booking.setStatus(Status.WAITING);
+
+        if (!item.isAvailable()) {
+            log.warn("Item " + bookingDto.getItemId() + " not available!");
+            throw new ValidationException("Item " + bookingDto.getItemId() + " not available!");
+        }
+
+        if (item.getOwner().equals(user)) {
+            log.warn("Not found item " + bookingDto.getItemId());
+            throw new ItemNotFoundException(bookingDto.getItemId());
+        }
+
+        return booking;
+    }
+
+    private static void validateDates(BookingDto bookingDto) {
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            log.warn("Dates of booking for item " + bookingDto.getItemId() + " are null!");
+            throw new ValidationException("Dates of booking for item " + bookingDto.getItemId() + " are null!");
+        }
+
+        if (!bookingDto.getEnd().isAfter(bookingDto.getStart())) {
+            log.warn("End date of booking for item " + bookingDto.getItemId() + " not after start!");
+            throw new ValidationException("End date of booking for item " + bookingDto.getItemId() + " not after start!");
+        }
+
+        if (bookingDto.getStart().isBefore(DateUtils.now())) {
+            log.warn("Start date of booking for item " + bookingDto.getItemId() + " in the past!");
+            throw new ValidationException("Start date of booking for item " + bookingDto.getItemId() + " in the past!");
+        }
+    }
+
+    private static BookingBatchResult failed(RuntimeException e) {
+        HttpStatus status;
+        if (e instanceof NotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (e instanceof ConflictException) {
+            status = HttpStatus.CONFLICT;
+        } else {
+            status = HttpStatus.BAD_REQUEST;
+        }
+        return new BookingBatchResult(status.value(), null, e.getMessage());
+    }
+
+    private static BookingPage toBookingPage(Slice<BookingListRow> bookingsSlice) {
+        List<BookingListRow> bookings = bookingsSlice.getContent();
+
+        String nextCursor = null;
+        if (bookingsSlice.hasNext()) {
+            nextCursor = BookingCursor.of(bookings.get(bookings.size() - 1)).encode();
+        }
+
+        return new BookingPage(BookingMapper.toBookingsDto(bookings), nextCursor);
     }
 
     private Booking getBooking(Long bookingId) {
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    // Один JSON-объект на строку
+    NDJSON("application/x-ndjson", "ndjson"),
+    // Таблица с заголовком, значения по RFC 4180
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+class IntervalTree {
+    private static final Comparator<Interval> ORDER = Comparator.comparing(Interval::getStart)
+            .thenComparing(Interval::getId);
+
+    private Node root;
+    private int size;
+
+    void insert(Interval interval) {
+        root = insert(root, interval);
+        size++;
+    }
+
+    void remove(Interval interval) {
+        int sizeBefore = size;
+        root = remove(root, interval);
+        if (size == sizeBefore) {
+            throw new IllegalStateException("Interval " + interval + " not found");
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.interval.overlaps(start, end)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    List<Interval> overlapping(LocalDateTime start, LocalDateTime end) {
+        List<Interval> intervals = new ArrayList<>();
+        collect(root, start, end, intervals);
+        return intervals;
+    }
+
+    private static void collect(Node node, LocalDateTime start, LocalDateTime end, List<Interval> intervals) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return;
+        }
+
+        collect(node.left, start, end, intervals);
+        if (node.interval.overlaps(start, end)) {
+            intervals.add(node.interval);
+        }
+        if (node.interval.getStart().isBefore(end)) {
+            collect(node.right, start, end, intervals);
+        }
+    }
+
+    private static Node insert(Node node, Interval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+
+        if (ORDER.compare(interval, node.interval) < 0) {
+            node.left = insert(node.left, interval);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, interval);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, Interval interval) {
+        if (node == null) {
+            return null;
+        }
+
+        int compare = ORDER.compare(interval, node.interval);
+        if (compare < 0) {
+            node.left = remove(node.left, interval);
+        } else if (compare > 0) {
+            node.right = remove(node.right, interval);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.update();
+            return right;
+        }
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    @Data
+    static class Interval {
+        private final Long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.isBefore(otherEnd) && otherStart.isBefore(end);
+        }
+    }
+
+    private static class Node {
+        private final Interval interval;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private LocalDateTime maxEnd;
+
+        Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEnd();
+        }
+
+        void update() {
+            maxEnd = interval.getEnd();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
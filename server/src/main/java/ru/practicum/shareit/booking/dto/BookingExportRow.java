@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.enums.Status;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingExportRow {
+    private Long id;
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    private Status status;
+
+    private Long itemId;
+    private String itemName;
+
+    private Long bookerId;
+    private String bookerName;
+}
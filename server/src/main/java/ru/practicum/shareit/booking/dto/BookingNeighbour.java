@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingNeighbour {
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+
+    String getPosition();
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.datasource;
+
+public enum DataSourceType {
+    // Основная БД, все записи и чтения вне read-only транзакций
+    PRIMARY,
+    // Реплика, read-only транзакции GET-запросов
+    REPLICA
+}
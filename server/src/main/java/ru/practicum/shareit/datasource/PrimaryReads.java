@@ -0,0 +1,32 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+// shared caches outlive the request, they are filled from the primary: a lagging replica would cache
+// stale rows and "not found" for rows that were just created
+@Component
+public class PrimaryReads {
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final TransactionTemplate transactionTemplate;
+
+    public PrimaryReads(ObjectProvider<ReplicaRoutingDataSource> routingDataSource,
+                        PlatformTransactionManager transactionManager) {
+        this.routingDataSource = routingDataSource.getIfAvailable();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // a read-only transaction of the caller is already bound to the replica, a new one isn't read-only
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T read(Supplier<T> reader) {
+        if (routingDataSource == null || !routingDataSource.isReplicaReadsAllowed()) {
+            return reader.get();
+        }
+        return transactionTemplate.execute(status -> reader.get());
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final ThreadLocal<Boolean> replicaReads = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(DataSourceType.PRIMARY, primary, DataSourceType.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    public void allowReplicaReads() {
+        replicaReads.set(Boolean.TRUE);
+    }
+
+    public void disallowReplicaReads() {
+        replicaReads.remove();
+    }
+
+    public boolean isReplicaReadsAllowed() {
+        return replicaReads.get() != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaReads.get() != null && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceType.REPLICA;
+        }
+        return DataSourceType.PRIMARY;
+    }
+}
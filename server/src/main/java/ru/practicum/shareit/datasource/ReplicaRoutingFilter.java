@@ -0,0 +1,64 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.Constants;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+public class ReplicaRoutingFilter extends OncePerRequestFilter {
+    private static final int MAX_RECENT_WRITERS = 100_000;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReplicaRoutingFilter(ReplicaRoutingDataSource routingDataSource, Duration readYourWrites) {
+        this.routingDataSource = routingDataSource;
+        this.recentWriters = readYourWrites.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(MAX_RECENT_WRITERS)
+                .expireAfterWrite(readYourWrites)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId = userId(request);
+
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            chain.doFilter(request, response);
+            if (recentWriters != null && userId != null && response.getStatus() < 400) {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+            return;
+        }
+
+        if (recentWriters != null && userId != null && recentWriters.getIfPresent(userId) != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        routingDataSource.allowReplicaReads();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            routingDataSource.disallowReplicaReads();
+        }
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        try {
+            String userId = request.getHeader(Constants.HEADER_USER_ID);
+            return userId != null ? Long.valueOf(userId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.ArrayList;
@@ -20,6 +21,16 @@ public class CommentMapper {
         return commentDto;
     }
 
+    public static CommentDto toCommentDto(CommentView comment) {
+        return new CommentDto(
+                comment.getId(),
+                comment.getText(),
+                comment.getItemId(),
+                comment.getAuthorName(),
+                comment.getCreated()
+        );
+    }
+
     public static List<CommentDto> toCommentsDto(List<Comment> comments) {
         List<CommentDto> commentsDto = new ArrayList<>();
 
@@ -1,11 +1,28 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItem(Item item);
+
+    // quoted aliases keep their case, unquoted ones only match the projection under an ascii-friendly locale
+    @Query(value = "SELECT c.id AS id, c.text AS text, c.item_id AS \"itemId\", u.name AS \"authorName\", " +
+            "c.created_date AS created, c.total AS total " +
+            "FROM (" +
+            "SELECT cm.id, cm.text, cm.item_id, cm.author_id, cm.created_date, " +
+            "ROW_NUMBER() OVER (PARTITION BY cm.item_id ORDER BY cm.created_date DESC, cm.id DESC) AS rn, " +
+            "COUNT(*) OVER (PARTITION BY cm.item_id) AS total " +
+            "FROM comments cm " +
+            "WHERE cm.item_id IN (:itemIds)" +
+            ") c " +
+            "JOIN users u ON u.id = c.author_id " +
+            "WHERE c.rn <= :limit " +
+            "ORDER BY c.item_id, c.id", nativeQuery = true)
+    List<CommentView> findLatestByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
 }
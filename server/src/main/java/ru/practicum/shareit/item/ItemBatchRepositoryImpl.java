@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ItemBatchRepositoryImpl implements ItemBatchRepository {
+    private static final String INSERT_ITEM = "INSERT INTO items (name, description, is_available, owner_id, request_id) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(List<Item> items) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ITEM, new String[]{"id"})) {
+                for (Item item : items) {
+                    statement.setString(1, item.getName());
+                    statement.setString(2, item.getDescription());
+                    statement.setBoolean(3, item.isAvailable());
+                    statement.setLong(4, item.getOwner().getId());
+                    if (item.getRequestId() != null) {
+                        statement.setLong(5, item.getRequestId());
+                    } else {
+                        statement.setNull(5, Types.BIGINT);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Item item : items) {
+                        keys.next();
+                        item.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
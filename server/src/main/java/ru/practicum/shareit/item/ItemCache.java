@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class ItemCache {
+    private final boolean enabled;
+    private final PrimaryReads primaryReads;
+    private final Cache<Long, Snapshot> cache;
+
+    public ItemCache(MeterRegistry meterRegistry,
+                     PrimaryReads primaryReads,
+                     @Value("${shareit.item.cache.enabled:false}") boolean enabled,
+                     @Value("${shareit.item.cache.max-size:10000}") long maxSize,
+                     @Value("${shareit.item.cache.ttl:1m}") Duration ttl) {
+        this.enabled = enabled;
+        this.primaryReads = primaryReads;
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items");
+    }
+
+    public Optional<Item> get(Long itemId, Function<Long, Optional<Item>> loader, Function<Long, User> owners) {
+        if (!enabled) {
+            return loader.apply(itemId);
+        }
+
+        Snapshot snapshot = cache.get(itemId, id -> primaryReads.read(() -> loader.apply(id))
+                .map(Snapshot::new)
+                .orElse(null));
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot.toItem(owners.apply(snapshot.getOwnerId())));
+    }
+
+    public void invalidate(Long itemId) {
+        cache.invalidate(itemId);
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        cache.asMap().values().removeIf(snapshot -> snapshot.getOwnerId().equals(event.getUserId()));
+    }
+
+    @Getter
+    private static class Snapshot {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+        private final Long ownerId;
+        private final Long requestId;
+
+        Snapshot(Item item) {
+            id = item.getId();
+            name = item.getName();
+            description = item.getDescription();
+            available = item.isAvailable();
+            ownerId = item.getOwner().getId();
+            requestId = item.getRequestId();
+        }
+
+        Item toItem(User owner) {
+            return new Item(id, name, description, available, owner, requestId);
+        }
+    }
+}
@@ -2,12 +2,19 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.Range;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 import static ru.practicum.shareit.Constants.HEADER_USER_ID;
 
@@ -27,6 +34,14 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportResult importItems(@RequestHeader(HEADER_USER_ID) Long userId,
+                                        InputStream items) {
+        log.info("Import items, user {}", userId);
+
+        return itemService.importItems(userId, items);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader(HEADER_USER_ID) Long userId,
                               @PathVariable Long itemId, @RequestBody ItemDto itemDto) {
@@ -51,11 +66,21 @@ public class ItemController {
         return itemService.getItemDto(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@RequestHeader(HEADER_USER_ID) Long userId,
+                                               @PathVariable Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get availability of item {} from {} to {}", itemId, from, to);
+
+        return itemService.getAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> search(@RequestParam String text,
                                 Integer from, Integer size) {
         log.info("Search item by {}", text);
-        String query = text.toLowerCase();
+        String query = text.toLowerCase(Locale.ROOT);
         return itemService.search(query, Range.of(from, size));
     }
 
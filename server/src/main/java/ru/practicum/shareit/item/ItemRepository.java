@@ -2,21 +2,42 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface ItemRepository extends PagingAndSortingRepository<Item, Long> {
+public interface ItemRepository extends PagingAndSortingRepository<Item, Long>, ItemBatchRepository {
     List<Item> findByOwnerOrderByIdAsc(User owner);
 
     Page<Item> findByOwnerOrderByIdAsc(User owner, Pageable pageable);
 
-    List<Item> findByRequestId(Long requestId);
-
-    List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailableIs(String text1, String text2, Boolean status);
-
-    Page<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailableIs(String text1, String text2, Boolean status, Pageable pageable);
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @EntityGraph(attributePaths = "owner")
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like concat('%', :pattern, '%') " +
+            "or lower(i.description) like concat('%', :pattern, '%')) " +
+            "order by case when lower(i.name) like concat('%', :pattern, '%') then 0 else 1 end, i.id")
+    List<Item> searchAvailable(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available = TRUE " +
+            "AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "OR lower(i.name) LIKE concat('%', :pattern, '%') " +
+            "OR lower(i.description) LIKE concat('%', :pattern, '%')) " +
+            "ORDER BY ts_rank(i.search_vector, plainto_tsquery('simple', :text)) DESC, " +
+            "CASE WHEN lower(i.name) LIKE concat('%', :pattern, '%') THEN 0 ELSE 1 END, i.id", nativeQuery = true)
+    List<Item> searchAvailableFullText(@Param("text") String text, @Param("pattern") String pattern, Pageable pageable);
 }
 
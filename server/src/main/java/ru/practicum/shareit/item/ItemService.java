@@ -2,15 +2,23 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.Range;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.model.Item;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
 
     ItemDto addItem(Long userId, ItemDto itemDto);
 
+    ItemImportResult importItems(Long userId, InputStream items);
+
     ItemDto updateItem(Long userId, ItemDto item);
 
     List<ItemDto> getItems(Long userId, Range range);
@@ -19,6 +27,10 @@ public interface ItemService {
 
     Item getItem(Long itemId);
 
+    Map<Long, Item> getItems(Collection<Long> itemIds);
+
+    ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
+
     List<ItemDto> search(String query, Range range);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto comment);
@@ -1,33 +1,60 @@
 package ru.practicum.shareit.item;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.DateUtils;
 import ru.practicum.shareit.Range;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingNeighbour;
 import ru.practicum.shareit.booking.dto.BookingShortInfoDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.enums.Status;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.dto.TimeSlot;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserServiceImpl;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_IMPORT_ERRORS = 100;
+    private static final int MAX_FIELD_LENGTH = 255;
+
     private final ItemRepository itemRepository;
 
     private final BookingRepository bookingRepository;
@@ -36,6 +63,26 @@ public class ItemServiceImpl implements ItemService {
 
     private final CommentRepository commentRepository;
 
+    private final ItemSearchIndex searchIndex;
+
+    private final ItemCache itemCache;
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${shareit.item.comments-limit:0}")
+    private int commentsLimit;
+
+    @Value("${shareit.item.search:like}")
+    private SearchMode searchMode;
+
+    @Value("${shareit.item.import.batch-size:500}")
+    private int importBatchSize;
+
+    @Value("${shareit.item.import.max-line-length:65536}")
+    private int importMaxLineLength;
+
     @Override
     public ItemDto addItem(Long userId, ItemDto itemDto) {
 
@@ -52,9 +99,85 @@ public class ItemServiceImpl implements ItemService {
             throw new ForbiddenException("Can't add item " + item.getId());
         }
 
+        searchIndex.index(addedItem);
+        itemCache.invalidate(addedItem.getId());
+
         return ItemMapper.toItemDto(addedItem);
     }
 
+    @Override
+    public ItemImportResult importItems(Long userId, InputStream items) {
+        User user = userService.getUser(userId);
+
+        ObjectReader reader = objectMapper.readerFor(ItemDto.class);
+        List<Item> batch = new ArrayList<>(importBatchSize);
+        List<String> errors = new ArrayList<>();
+        long lineNumber = 0;
+        long imported = 0;
+        long failed = 0;
+
+        try (Reader lines = new BufferedReader(new InputStreamReader(items, StandardCharsets.UTF_8))) {
+            while (true) {
+                String line;
+                try {
+                    line = readLine(lines, importMaxLineLength);
+                } catch (ValidationException e) {
+                    lineNumber++;
+                    failed++;
+                    addImportError(errors, "Line " + lineNumber + ": " + e.getMessage());
+                    continue;
+                }
+                if (line == null) {
+                    break;
+                }
+
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    ItemDto itemDto = reader.readValue(line);
+                    validateImportedItem(itemDto);
+
+                    Item item = ItemMapper.toItem(itemDto);
+                    item.setId(null);
+                    item.setOwner(user);
+                    batch.add(item);
+                } catch (JsonProcessingException e) {
+                    failed++;
+                    addImportError(errors, "Line " + lineNumber + ": " + e.getOriginalMessage());
+                    continue;
+                } catch (ValidationException e) {
+                    failed++;
+                    addImportError(errors, "Line " + lineNumber + ": " + e.getMessage());
+                    continue;
+                }
+
+                if (batch.size() >= importBatchSize) {
+                    int size = batch.size();
+                    long inserted = importBatch(batch, lineNumber, errors);
+                    imported += inserted;
+                    failed += size - inserted;
+                    log.info("Import for user {}: {} lines read, {} items imported", userId, lineNumber, imported);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Import for user " + userId + " interrupted at line " + lineNumber + ": " + e.getMessage());
+            addImportError(errors, "Upload interrupted after line " + lineNumber + ": " + e.getMessage());
+        }
+
+        if (!batch.isEmpty()) {
+            int size = batch.size();
+            long inserted = importBatch(batch, lineNumber, errors);
+            imported += inserted;
+            failed += size - inserted;
+        }
+
+        log.info("Import for user {} done: {} lines, {} items imported, {} failed", userId, lineNumber, imported, failed);
+        return new ItemImportResult(lineNumber, imported, failed, errors);
+    }
+
     @Override
     public ItemDto updateItem(Long userId, ItemDto itemDto) {
         Item gettedItem = getItem(itemDto.getId());
@@ -79,9 +202,13 @@ public class ItemServiceImpl implements ItemService {
 
         Item updatedItem = itemRepository.save(gettedItem);
 
+        searchIndex.index(updatedItem);
+        itemCache.invalidate(updatedItem.getId());
+
         return ItemMapper.toItemDto(updatedItem);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemDto> getItems(Long userId, Range range) {
         User user = userService.getUser(userId);
@@ -97,19 +224,12 @@ public class ItemServiceImpl implements ItemService {
 
 
         for (Item item : items) {
-            ItemDto itemDto = ItemMapper.toItemDto(item);
-
-            List<Comment> comments = commentRepository.findByItem(item);
-
-            itemDto.setComments(CommentMapper.toCommentsDto(comments));
+            listItemDto.add(ItemMapper.toItemDto(item));
+        }
 
-            if (item.getOwner().equals(user)) {
-                itemDto.setLastBooking(findLastBooking(item));
-                itemDto.setNextBooking(findNextBooking(item));
-            }
+        setComments(listItemDto);
+        setBookings(listItemDto);
 
-            listItemDto.add(itemDto);
-        }
         log.error("For user {} items {}", userId, listItemDto);
         return listItemDto;
     }
@@ -121,13 +241,10 @@ public class ItemServiceImpl implements ItemService {
 
         ItemDto itemDto = ItemMapper.toItemDto(item);
 
-        List<Comment> comments = commentRepository.findByItem(item);
-
-        itemDto.setComments(CommentMapper.toCommentsDto(comments));
+        setComments(List.of(itemDto));
 
         if (item.getOwner().equals(user)) {
-            itemDto.setLastBooking(findLastBooking(item));
-            itemDto.setNextBooking(findNextBooking(item));
+            setBookings(List.of(itemDto));
         }
 
         return itemDto;
@@ -135,7 +252,7 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public Item getItem(Long itemId) {
-        Optional<Item> item = itemRepository.findById(itemId);
+        Optional<Item> item = itemCache.get(itemId, itemRepository::findById, userService::getUser);
         if (item.isPresent()) {
             return item.get();
         } else {
@@ -144,6 +261,46 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    public Map<Long, Item> getItems(Collection<Long> itemIds) {
+        Map<Long, Item> items = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return items;
+        }
+        for (Item item : itemRepository.findByIdIn(itemIds)) {
+            items.put(item.getId(), item);
+        }
+        return items;
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        userService.getUser(userId);
+        Item item = getItem(itemId);
+
+        if (!from.isBefore(to)) {
+            log.warn("Availability period start " + from + " not before end " + to);
+            throw new ValidationException("Availability period start " + from + " not before end " + to);
+        }
+
+        List<TimeSlot> busy = bookingIntervalIndex.busy(item.getId(), from, to);
+
+        List<TimeSlot> free = new ArrayList<>();
+        LocalDateTime freeStart = from;
+        for (TimeSlot slot : busy) {
+            if (freeStart.isBefore(slot.getStart())) {
+                free.add(new TimeSlot(freeStart, slot.getStart()));
+            }
+            freeStart = slot.getEnd();
+        }
+        if (freeStart.isBefore(to)) {
+            free.add(new TimeSlot(freeStart, to));
+        }
+
+        return new ItemAvailabilityDto(item.getId(), from, to, busy, free);
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public List<ItemDto> search(String query, Range range) {
         List<ItemDto> listItemDto = new ArrayList<>();
@@ -152,8 +309,21 @@ public class ItemServiceImpl implements ItemService {
             int newFrom = range.getFrom() / range.getSize();
             Pageable page = PageRequest.of(newFrom, range.getSize());
 
-            Page<Item> itemsPage = itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailableIs(query, query, true, page);
-            for (Item item : itemsPage.getContent()) {
+            String pattern = escapeLike(query.toLowerCase(Locale.ROOT));
+
+            List<Item> items;
+            switch (searchMode) {
+                case INDEX:
+                    return searchIndex.search(query, newFrom * range.getSize(), range.getSize());
+                case FULLTEXT:
+                    items = itemRepository.searchAvailableFullText(query, pattern, page);
+                    break;
+                case LIKE:
+                default:
+                    items = itemRepository.searchAvailable(pattern, page);
+            }
+
+            for (Item item : items) {
                 listItemDto.add(ItemMapper.toItemDto(item));
             }
         }
@@ -192,38 +362,130 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private BookingShortInfoDto findLastBooking(Item item) {
+    private long importBatch(List<Item> batch, long lineNumber, List<String> errors) {
+        long inserted = 0;
+        try {
+            itemRepository.insertAll(batch);
+            for (Item item : batch) {
+                searchIndex.index(item);
+                itemCache.invalidate(item.getId());
+            }
+            inserted = batch.size();
+        } catch (DataAccessException e) {
+            log.warn("Can't import batch of " + batch.size() + " items ending at line " + lineNumber + ": " + e.getMessage());
+            addImportError(errors, "Batch of " + batch.size() + " items ending at line " + lineNumber
+                    + " not imported: " + e.getMostSpecificCause().getMessage());
+        }
+        batch.clear();
+        return inserted;
+    }
+
+    private static void validateImportedItem(ItemDto itemDto) {
+        if (itemDto.getName() == null) {
+            log.warn("Name is null!");
+            throw new NullValidationException("Name");
+        }
 
-        List<Booking> bookings = bookingRepository.findByItemAndStartIsBeforeOrderByEndDesc(item, DateUtils.now());
+        if (itemDto.getName().isBlank()) {
+            log.warn("Name is empty!");
+            throw new ValidationException("Name is empty!");
+        }
 
-        if (bookings.size() > 0) {
-            Booking booking = bookings.get(0);
+        if (itemDto.getAvailable() == null) {
+            log.warn("Available is null!");
+            throw new NullValidationException("Available");
+        }
+
+        if (itemDto.getDescription() == null) {
+            log.warn("Description is null!");
+            throw new NullValidationException("Description");
+        }
 
-            if (booking.getStatus() == Status.APPROVED) {
-                BookingShortInfoDto lastBooking = new BookingShortInfoDto();
-                lastBooking.setId(booking.getId());
-                lastBooking.setBookerId(booking.getBooker().getId());
+        if (itemDto.getName().length() > MAX_FIELD_LENGTH || itemDto.getDescription().length() > MAX_FIELD_LENGTH) {
+            log.warn("Name or description longer than " + MAX_FIELD_LENGTH + " characters");
+            throw new ValidationException("Name or description longer than " + MAX_FIELD_LENGTH + " characters");
+        }
+    }
+
+    private static String readLine(Reader reader, int maxLength) throws IOException {
+        int ch = reader.read();
+        if (ch == -1) {
+            return null;
+        }
 
-                return lastBooking;
+        StringBuilder line = new StringBuilder();
+        boolean tooLong = false;
+        while (ch != -1 && ch != '\n') {
+            if (line.length() < maxLength) {
+                line.append((char) ch);
+            } else {
+                tooLong = true;
             }
+            ch = reader.read();
         }
-        return null;
+
+        if (tooLong) {
+            log.warn("Line longer than " + maxLength + " characters");
+            throw new ValidationException("Line longer than " + maxLength + " characters");
+        }
+        return line.toString();
     }
 
-    private BookingShortInfoDto findNextBooking(Item item) {
-        List<Booking> bookings = bookingRepository.findByItemAndStartIsAfterOrderByStartAsc(item, DateUtils.now());
+    private static void addImportError(List<String> errors, String error) {
+        if (errors.size() < MAX_IMPORT_ERRORS) {
+            errors.add(error);
+        }
+    }
 
-        if (bookings.size() > 0) {
-            Booking booking = bookings.get(0);
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private void setComments(List<ItemDto> itemsDto) {
+        Map<Long, ItemDto> itemsById = new HashMap<>();
+        for (ItemDto itemDto : itemsDto) {
+            itemDto.setComments(new ArrayList<>());
+            itemDto.setCommentsCount(0L);
+            itemsById.put(itemDto.getId(), itemDto);
+        }
+
+        if (itemsById.isEmpty()) {
+            return;
+        }
+
+        int limit = commentsLimit > 0 ? commentsLimit : Integer.MAX_VALUE;
+        List<CommentView> comments = commentRepository.findLatestByItemIds(itemsById.keySet(), limit);
+
+        for (CommentView comment : comments) {
+            ItemDto itemDto = itemsById.get(comment.getItemId());
+            itemDto.getComments().add(CommentMapper.toCommentDto(comment));
+            itemDto.setCommentsCount(comment.getTotal());
+        }
+    }
+
+    private void setBookings(List<ItemDto> itemsDto) {
+        if (itemsDto.isEmpty()) {
+            return;
+        }
+
+        Map<Long, ItemDto> itemsById = new HashMap<>();
+        for (ItemDto itemDto : itemsDto) {
+            itemsById.put(itemDto.getId(), itemDto);
+        }
+
+        List<BookingNeighbour> neighbours = bookingRepository.findNeighbours(itemsById.keySet(), DateUtils.now());
 
-            if (booking.getStatus() == Status.APPROVED) {
-                BookingShortInfoDto nextBooking = new BookingShortInfoDto();
-                nextBooking.setId(booking.getId());
-                nextBooking.setBookerId(booking.getBooker().getId());
+        for (BookingNeighbour neighbour : neighbours) {
+            ItemDto itemDto = itemsById.get(neighbour.getItemId());
+            BookingShortInfoDto booking = new BookingShortInfoDto(neighbour.getId(), neighbour.getBookerId());
 
-                return nextBooking;
+            if (BookingNeighbour.LAST.equals(neighbour.getPosition())) {
+                itemDto.setLastBooking(booking);
+            } else {
+                itemDto.setNextBooking(booking);
             }
         }
-        return null;
     }
 }
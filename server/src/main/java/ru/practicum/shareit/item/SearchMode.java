@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item;
+
+public enum SearchMode {
+    // Подстрока в названии или описании, работает на любой БД
+    LIKE,
+    // Полнотекстовый индекс tsvector + pg_trgm, только PostgreSQL
+    FULLTEXT,
+    // Триграммный индекс в памяти сервера, БД не используется
+    INDEX
+}
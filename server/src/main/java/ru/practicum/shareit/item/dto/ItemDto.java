@@ -21,4 +21,5 @@ public class ItemDto {
     private BookingShortInfoDto nextBooking;
 
     private List<CommentDto> comments;
+    private Long commentsCount;
 }
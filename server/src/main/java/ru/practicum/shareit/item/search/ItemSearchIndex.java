@@ -0,0 +1,268 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.SearchMode;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_SIZE = 3;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Long, Document> documents = new TreeMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private final Timer queryTimer;
+    private volatile long buildTimeMillis;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.item.search:like}") SearchMode searchMode) {
+        this.itemRepository = itemRepository;
+        this.enabled = searchMode == SearchMode.INDEX;
+
+        Gauge.builder("shareit.search.index.documents", this, ItemSearchIndex::documentsCount)
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.grams", this, ItemSearchIndex::gramsCount)
+                .register(meterRegistry);
+        TimeGauge.builder("shareit.search.index.build.time", this, TimeUnit.MILLISECONDS, index -> index.buildTimeMillis)
+                .register(meterRegistry);
+        queryTimer = Timer.builder("shareit.search.index.query")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            for (Item item : itemRepository.findAll()) {
+                add(new Document(item));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        buildTimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Item search index built: {} items, {} grams, {} ms", documentsCount(), gramsCount(), buildTimeMillis);
+    }
+
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            add(new Document(item));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<Long> ownedItems = new ArrayList<>();
+            for (Document document : documents.values()) {
+                if (document.getOwnerId().equals(event.getUserId())) {
+                    ownedItems.add(document.getId());
+                }
+            }
+            ownedItems.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        return queryTimer.record(() -> find(text.toLowerCase(Locale.ROOT), from, size));
+    }
+
+    private List<ItemDto> find(String query, int from, int size) {
+        List<Document> found = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(query)) {
+                Document document = documents.get(id);
+                if (document.isAvailable() && document.matches(query)) {
+                    found.add(document);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        found.sort(Comparator.comparing((Document document) -> !document.getName().contains(query))
+                .thenComparing(Document::getId));
+
+        List<ItemDto> itemsDto = new ArrayList<>();
+        for (int i = from; i < found.size() && i < from + size; i++) {
+            itemsDto.add(found.get(i).toItemDto());
+        }
+        return itemsDto;
+    }
+
+    private long[] candidates(String query) {
+        if (query.length() < GRAM_SIZE) {
+            return documents.keySet().stream().mapToLong(Long::longValue).toArray();
+        }
+
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        long[] candidates = lists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retain(candidates, count);
+        }
+
+        long[] result = new long[count];
+        System.arraycopy(candidates, 0, result, 0, count);
+        return result;
+    }
+
+    private void add(Document document) {
+        documents.put(document.getId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(document.getId());
+        }
+    }
+
+    private void remove(Long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+
+        for (String gram : document.grams()) {
+            PostingList list = postings.get(gram);
+            list.remove(itemId);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private int documentsCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int gramsCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    @Getter
+    private static class Document {
+        private final Long id;
+        private final Long ownerId;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final Long requestId;
+        private final String originalName;
+        private final String originalDescription;
+
+        Document(Item item) {
+            id = item.getId();
+            ownerId = item.getOwner().getId();
+            originalName = item.getName();
+            originalDescription = item.getDescription();
+            name = originalName.toLowerCase(Locale.ROOT);
+            description = originalDescription.toLowerCase(Locale.ROOT);
+            available = Boolean.TRUE.equals(item.isAvailable());
+            requestId = item.getRequestId();
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        ItemDto toItemDto() {
+            ItemDto itemDto = new ItemDto();
+
+            itemDto.setId(id);
+            itemDto.setName(originalName);
+            itemDto.setDescription(originalDescription);
+            itemDto.setAvailable(available);
+            itemDto.setRequestId(requestId);
+
+            return itemDto;
+        }
+    }
+}
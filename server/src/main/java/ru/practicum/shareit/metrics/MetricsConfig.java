@@ -0,0 +1,56 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor repositoryRowsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new RepositoryRowsInterceptor(meterRegistry.getObject(),
+                                            repositoryInformation.getRepositoryInterface(),
+                                            repositoryInformation.getDomainType()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // the application data source (the routing one when there is a replica), Flyway and JPA use it too
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingPostProcessor(ObjectProvider<SqlStatementCounter> counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource) {
+                    return new StatementCountingDataSource((DataSource) bean, counter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter(
+            SqlStatementCounter counter, MeterRegistry meterRegistry,
+            @Value("${shareit.sql-statements.warn-threshold:20}") int warnThreshold,
+            @Value("${shareit.sql-count-header.enabled:false}") boolean header) {
+        return new FilterRegistrationBean<>(new SqlStatementCountFilter(counter, meterRegistry, warnThreshold,
+                header));
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+class RepositoryRowsInterceptor implements MethodInterceptor {
+    private final MeterRegistry meterRegistry;
+    private final Class<?> repositoryInterface;
+    private final Class<?> domainType;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    RepositoryRowsInterceptor(MeterRegistry meterRegistry, Class<?> repositoryInterface, Class<?> domainType) {
+        this.meterRegistry = meterRegistry;
+        this.repositoryInterface = repositoryInterface;
+        this.domainType = domainType;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        Method method = invocation.getMethod();
+        Integer rows = rows(method, result);
+        if (rows != null) {
+            summaries.computeIfAbsent(method, this::summary).record(rows);
+        }
+        return result;
+    }
+
+    private Integer rows(Method method, Object result) {
+        if (method.getReturnType() == void.class) {
+            return null;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (domainType.isInstance(result)) {
+            return 1;
+        }
+        return null;
+    }
+
+    private DistributionSummary summary(Method method) {
+        return DistributionSummary.builder("shareit.repository.rows")
+                .tag("repository", repositoryInterface.getSimpleName())
+                .tag("method", method.getName())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import static ru.practicum.shareit.Constants.HEADER_SQL_STATEMENTS;
+
+@RestControllerAdvice
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.sql-count-header.enabled", havingValue = "true")
+public class SqlStatementCountAdvice implements ResponseBodyAdvice<Object> {
+    private final SqlStatementCounter counter;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(HEADER_SQL_STATEMENTS, String.valueOf(counter.count()));
+        return body;
+    }
+}
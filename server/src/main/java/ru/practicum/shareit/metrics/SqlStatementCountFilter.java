@@ -0,0 +1,65 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static ru.practicum.shareit.Constants.HEADER_SQL_STATEMENTS;
+
+@Slf4j
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+    private final boolean header;
+
+    public SqlStatementCountFilter(SqlStatementCounter counter, MeterRegistry meterRegistry, int warnThreshold,
+                                   boolean header) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+        this.header = header;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        counter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long statements = counter.count();
+            counter.stop();
+            record(request, statements);
+            // responses with a body got the header from SqlStatementCountAdvice before they were committed
+            if (header && !response.isCommitted()) {
+                response.setHeader(HEADER_SQL_STATEMENTS, String.valueOf(statements));
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("shareit.http.sql.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (warnThreshold > 0 && statements > warnThreshold) {
+            log.warn("{} {} ran {} SQL statements, more than {} (N+1?)",
+                    request.getMethod(), request.getRequestURI(), statements, warnThreshold);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class SqlStatementCounter {
+    private final ThreadLocal<long[]> statements = new ThreadLocal<>();
+
+    public void executed(String sql) {
+        long[] count = statements.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    public void start() {
+        statements.set(new long[1]);
+    }
+
+    public long count() {
+        long[] count = statements.get();
+        return count != null ? count[0] : 0;
+    }
+
+    public void stop() {
+        statements.remove();
+    }
+
+    public long measure(Runnable action) {
+        long[] outer = statements.get();
+        start();
+        try {
+            action.run();
+            return count();
+        } finally {
+            long inner = count();
+            if (outer != null) {
+                outer[0] += inner;
+                statements.set(outer);
+            } else {
+                stop();
+            }
+        }
+    }
+}
@@ -2,10 +2,10 @@ package ru.practicum.shareit.request;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.DateUtils;
 import ru.practicum.shareit.Range;
 import ru.practicum.shareit.exceptions.ForbiddenException;
@@ -18,7 +18,10 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserServiceImpl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -58,19 +61,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<ItemRequestDto> listItemRequests = new ArrayList<>();
         List<ItemRequest> itemRequests = itemRequestRepository.findByRequestor(user);
         for (ItemRequest itemRequest : itemRequests) {
-
-            ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
-
-            List<Item> items = itemRepository.findByRequestId(itemRequest.getId());
-
-            itemRequestDto.setItems(ItemMapper.toItemsDto(items));
-
-            listItemRequests.add(itemRequestDto);
+            listItemRequests.add(ItemRequestMapper.toItemRequestDto(itemRequest));
         }
 
+        setItems(listItemRequests);
+
         return listItemRequests;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getOtherItemRequests(Long userId, Range range) {
         User user = userService.getUser(userId);
@@ -78,21 +77,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         Pageable page = PageRequest.of(range.getFrom(), range.getSize());
 
-        Page<ItemRequest> itemRequestPage = itemRequestRepository.findAll(page);
-
-        itemRequestPage.getContent().forEach(itemRequest -> {
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllBy(page);
 
+        itemRequests.forEach(itemRequest -> {
             if (!itemRequest.getRequestor().equals(user)) {
-                ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
-
-                List<Item> items = itemRepository.findByRequestId(itemRequest.getId());
-
-                itemRequestDto.setItems(ItemMapper.toItemsDto(items));
-
-                listItemRequests.add(itemRequestDto);
+                listItemRequests.add(ItemRequestMapper.toItemRequestDto(itemRequest));
             }
         });
 
+        setItems(listItemRequests);
+
         return listItemRequests;
     }
 
@@ -100,14 +94,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemRequestDto getItemRequestDto(Long userId, Long requestId) {
         User user = userService.getUser(userId);
 
-        if (itemRequestRepository.existsById(requestId)) {
-            ItemRequest itemRequest = itemRequestRepository.getReferenceById(requestId);
+        Optional<ItemRequest> itemRequest = itemRequestRepository.findById(requestId);
+        if (itemRequest.isPresent()) {
+            ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest.get());
 
-            ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
-
-            List<Item> items = itemRepository.findByRequestId(itemRequest.getId());
-
-            itemRequestDto.setItems(ItemMapper.toItemsDto(items));
+            setItems(List.of(itemRequestDto));
 
             return itemRequestDto;
         } else {
@@ -115,4 +106,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             throw new ItemRequestNotFoundException(requestId);
         }
     }
+
+    private void setItems(List<ItemRequestDto> itemRequestsDto) {
+        Map<Long, ItemRequestDto> requestsById = new HashMap<>();
+        for (ItemRequestDto itemRequestDto : itemRequestsDto) {
+            itemRequestDto.setItems(new ArrayList<>());
+            requestsById.put(itemRequestDto.getId(), itemRequestDto);
+        }
+
+        if (requestsById.isEmpty()) {
+            return;
+        }
+
+        List<Item> items = itemRepository.findByRequestIdIn(requestsById.keySet());
+
+        for (Item item : items) {
+            requestsById.get(item.getRequestId()).getItems().add(ItemMapper.toItemDto(item));
+        }
+    }
 }
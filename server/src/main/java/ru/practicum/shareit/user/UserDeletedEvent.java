@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user;
+
+import lombok.Data;
+
+@Data
+public class UserDeletedEvent {
+    private final Long userId;
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 
@@ -15,9 +17,15 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final UserCache userCache;
+
     public User addUser(User user) {
         try {
-            return repository.save(user);
+            User savedUser = repository.save(user);
+            userCache.invalidate(savedUser.getId());
+            return savedUser;
         } catch (RuntimeException e) {
             throw new ConflictException("User didn't save!");
         }
@@ -39,6 +47,8 @@ public class UserServiceImpl implements UserService {
                 return repository.save(gettedUser);
             } catch (RuntimeException e) {
                 throw new ConflictException("User didn't save!");
+            } finally {
+                userCache.invalidate(user.getId());
             }
         } else {
             log.warn("Not found user " + user.getId());
@@ -46,12 +56,13 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<User> getUsers() {
         return repository.findAll();
     }
 
     public User getUser(Long userId) {
-        Optional<User> user = repository.findById(userId);
+        Optional<User> user = userCache.get(userId, repository::findById);
         if (user.isPresent()) {
             return user.get();
         } else {
@@ -63,6 +74,8 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long userId) {
         if (repository.existsById(userId)) {
             repository.deleteById(userId);
+            userCache.invalidate(userId);
+            eventPublisher.publishEvent(new UserDeletedEvent(userId));
         } else {
             log.warn("Not found user " + userId);
             throw new UserNotFoundException(userId);
@@ -1,10 +1,4 @@
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS users;
-
-CREATE TABLE IF NOT EXISTS users (
+CREATE TABLE users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
@@ -12,7 +6,7 @@ CREATE TABLE IF NOT EXISTS users (
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
-CREATE TABLE IF NOT EXISTS items (
+CREATE TABLE items (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(255) NOT NULL,
@@ -23,7 +17,7 @@ CREATE TABLE IF NOT EXISTS items (
   FOREIGN KEY(owner_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS bookings (
+CREATE TABLE bookings (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -35,7 +29,7 @@ CREATE TABLE IF NOT EXISTS bookings (
   FOREIGN KEY(booker_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS comments (
+CREATE TABLE comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   text VARCHAR(512),
   item_id BIGINT NOT NULL,
@@ -46,11 +40,11 @@ CREATE TABLE IF NOT EXISTS comments (
   FOREIGN KEY(author_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS requests (
+CREATE TABLE requests (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   description VARCHAR(512) NOT NULL,
   requestor_id BIGINT NOT NULL,
   created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   CONSTRAINT pk_request PRIMARY KEY (id),
   FOREIGN KEY(requestor_id) REFERENCES users(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
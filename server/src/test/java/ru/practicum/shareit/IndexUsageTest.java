@@ -0,0 +1,170 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+
+// plans are only meaningful on PostgreSQL (H2 picks its own foreign key indexes): the test starts a throwaway
+// PostgreSQL and runs with the PostgreSQL settings of the default profile (surefire activates the test profile)
+@Slf4j
+@SpringBootTest(properties = "spring.profiles.active=default")
+class IndexUsageTest {
+    private static final EmbeddedPostgres POSTGRES = start();
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+    private static final Sort SORT_BY_END = Sort.by(Sort.Direction.DESC, "end");
+    private static final Sort SORT_BY_END_AND_ID = Sort.by(Sort.Direction.DESC, "end", "id");
+
+    @SpyBean
+    private SqlStatementCounter counter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private final List<String> failures = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void hotQueriesUseTheirIndexes() {
+        User user = new User(1L, "user", "user@shareit.ru");
+        LocalDateTime now = LocalDateTime.now();
+        Pageable page = PageRequest.of(0, 20, SORT_BY_END);
+        Pageable cursorPage = PageRequest.of(0, 20, SORT_BY_END_AND_ID);
+
+        expect("ix_bookings_booker_end", "findByBooker", () -> bookingRepository.findByBooker(user, page));
+        expect("ix_bookings_booker_end", "findByBookerCurrent",
+                () -> bookingRepository.findByBookerCurrent(user, now, page));
+        expect("ix_bookings_booker_end", "findByBookerPast", () -> bookingRepository.findByBookerPast(user, now, page));
+        expect("ix_bookings_booker_end", "findByBookerFuture",
+                () -> bookingRepository.findByBookerFuture(user, now, page));
+        expect("ix_bookings_booker_end", "findByBookerAndStatusIs",
+                () -> bookingRepository.findByBookerAndStatusIs(user, Status.WAITING, page));
+        expect("ix_bookings_booker_end", "findByBookerAfter",
+                () -> bookingRepository.findByBookerAfter(user, now, 1L, cursorPage));
+        expect("ix_items_owner", "findByItemOwner", () -> bookingRepository.findByItemOwner(user, page));
+        expect("ix_items_owner", "findByItemOwnerAfter",
+                () -> bookingRepository.findByItemOwnerAfter(user, now, 1L, cursorPage));
+        expect("ix_bookings_item_start", "findNeighbours",
+                () -> bookingRepository.findNeighbours(List.of(1L, 2L), now));
+        expect("ix_items_owner", "findByOwnerOrderByIdAsc",
+                () -> itemRepository.findByOwnerOrderByIdAsc(user, PageRequest.of(0, 20)));
+        expect("ix_items_request", "findByRequestIdIn", () -> itemRepository.findByRequestIdIn(List.of(1L, 2L)));
+        expect("ix_comments_item_created", "findLatestByItemIds",
+                () -> commentRepository.findLatestByItemIds(List.of(1L, 2L), 10));
+        expect("ix_requests_requestor", "findByRequestor", () -> itemRequestRepository.findByRequestor(user));
+
+        assertThat(failures).isEmpty();
+    }
+
+    private void expect(String index, String query, Runnable call) {
+        clearInvocations(counter);
+        call.run();
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(counter, atLeastOnce()).executed(sql.capture());
+
+        // the query itself comes first, the statements after it load the associations of its rows
+        String statement = sql.getAllValues().get(0);
+        String plan = explain(statement);
+        if (!plan.contains(index)) {
+            log.warn("{} doesn't use {}: {}\n{}", query, index, statement, plan);
+            failures.add(query + " -> " + index + "\n" + plan);
+        }
+    }
+
+    // the generic plan of a prepared statement doesn't depend on parameter values, small tables are
+    // cheaper to scan, so sequential scans are off to ask whether the index can be used at all
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+                statement.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+
+                Matcher matcher = PARAMETER.matcher(sql);
+                StringBuilder prepared = new StringBuilder();
+                List<String> arguments = new ArrayList<>();
+                while (matcher.find()) {
+                    arguments.add("NULL");
+                    matcher.appendReplacement(prepared, "\\$" + arguments.size());
+                }
+                matcher.appendTail(prepared);
+                statement.execute("PREPARE hot_query AS " + prepared);
+                try {
+                    StringBuilder plan = new StringBuilder();
+                    String execute = arguments.isEmpty() ? "" : "(" + String.join(", ", arguments) + ")";
+                    try (ResultSet resultSet = statement.executeQuery("EXPLAIN EXECUTE hot_query" + execute)) {
+                        while (resultSet.next()) {
+                            plan.append(resultSet.getString(1)).append('\n');
+                        }
+                    }
+                    return plan.toString();
+                } finally {
+                    statement.execute("DEALLOCATE hot_query");
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+    }
+}
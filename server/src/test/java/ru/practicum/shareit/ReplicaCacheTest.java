@@ -0,0 +1,56 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.Constants.HEADER_USER_ID;
+
+// nothing replicates into the embedded replica, rows saved here exist only on the primary
+@SpringBootTest(properties = "shareit.item.cache.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "replica"})
+class ReplicaCacheTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void getRequestsReadFromReplica() throws Exception {
+        User user = userRepository.save(new User(null, "primary", "primary-list@shareit.ru"));
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", not(hasItem(user.getId().intValue()))));
+    }
+
+    @Test
+    void cachesAreFilledFromPrimary() throws Exception {
+        User owner = userRepository.save(new User(null, "primary", "primary-cache@shareit.ru"));
+        Item item = itemRepository.save(new Item(null, "Drill", "Primary only", true, owner, null));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/users/{id}", owner.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.email").value(owner.getEmail()));
+            mockMvc.perform(get("/items/{id}", item.getId()).header(HEADER_USER_ID, owner.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value(item.getName()));
+        }
+    }
+}
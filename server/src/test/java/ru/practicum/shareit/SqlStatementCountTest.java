@@ -0,0 +1,217 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.Constants.HEADER_SQL_STATEMENTS;
+import static ru.practicum.shareit.Constants.HEADER_USER_ID;
+
+@SpringBootTest(properties = "shareit.sql-count-header.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementCountTest {
+    private static final int N = 5;
+    private static final long MAX_STATEMENTS = 5;
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Test
+    void statementCountDoesNotGrowWithRows() throws Exception {
+        Map<String, Long> small = measure(N);
+        Map<String, Long> large = measure(10 * N);
+
+        assertThat(large).isEqualTo(small);
+        assertThat(small).allSatisfy((endpoint, statements) -> assertThat(statements)
+                .as(endpoint)
+                .isLessThanOrEqualTo(MAX_STATEMENTS));
+    }
+
+    private Map<String, Long> measure(int rows) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(null, "owner", "owner" + rows + "@shareit.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker" + rows + "@shareit.ru"));
+
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            requests.add(new ItemRequest(null, "Need item " + i, booker, now.minusDays(1)));
+        }
+        itemRequestRepository.saveAll(requests);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            items.add(new Item(null, "Drill scale" + rows, "Item " + i, true, owner, requests.get(i).getId()));
+        }
+        itemRepository.saveAll(items);
+
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (Item item : items) {
+            bookings.add(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker, Status.APPROVED));
+            bookings.add(new Booking(null, now.minusHours(1), now.plusHours(1), item, booker, Status.APPROVED));
+            bookings.add(new Booking(null, now.plusDays(2), now.plusDays(3), item, booker, Status.WAITING));
+            bookings.add(new Booking(null, now.plusDays(4), now.plusDays(5), item, booker, Status.REJECTED));
+
+            Comment comment = new Comment();
+            comment.setText("Comment on " + item.getName());
+            comment.setItem(item);
+            comment.setAuthor(booker);
+            comment.setCreated(now.minusDays(1));
+            comments.add(comment);
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+
+        Item item = items.get(0);
+        Map<String, Long> statements = new LinkedHashMap<>();
+        statements.put("GET /users", statements(get("/users")));
+        statements.put("GET /users/{id}", statements(get("/users/{id}", booker.getId())));
+        statements.put("GET /items", statements(get("/items")
+                .header(HEADER_USER_ID, owner.getId())
+                .param("from", "0")
+                .param("size", "1000")));
+        statements.put("GET /items/{id}", statements(get("/items/{id}", item.getId())
+                .header(HEADER_USER_ID, owner.getId())));
+        statements.put("GET /items/search", statements(get("/items/search")
+                .param("text", "scale" + rows)
+                .param("from", "0")
+                .param("size", "1000")));
+        statements.put("GET /items/{id}/availability", statements(get("/items/{id}/availability", item.getId())
+                .header(HEADER_USER_ID, booker.getId())
+                .param("from", now.toString())
+                .param("to", now.plusDays(10).toString())));
+        statements.put("GET /bookings/{id}", statements(get("/bookings/{id}", bookings.get(0).getId())
+                .header(HEADER_USER_ID, booker.getId())));
+        statements.put("GET /requests", statements(get("/requests").header(HEADER_USER_ID, booker.getId())));
+        statements.put("GET /requests/all", statements(get("/requests/all")
+                .header(HEADER_USER_ID, owner.getId())
+                .param("from", "0")
+                .param("size", "1000")));
+        statements.put("GET /requests/{id}", statements(get("/requests/{id}", requests.get(0).getId())
+                .header(HEADER_USER_ID, owner.getId())));
+        for (String state : STATES) {
+            statements.put("GET /bookings?state=" + state, statements(bookings("/bookings", booker, state, null)));
+            statements.put("GET /bookings?cursor&state=" + state, statements(bookings("/bookings", booker, state, "")));
+            statements.put("GET /bookings/owner?state=" + state, statements(bookings("/bookings/owner", owner, state, null)));
+            statements.put("GET /bookings/owner?cursor&state=" + state,
+                    statements(bookings("/bookings/owner", owner, state, "")));
+        }
+
+        List<BookingDto> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            BookingDto booking = new BookingDto();
+            booking.setItemId(items.get(i).getId());
+            booking.setStart(now.plusDays(10).plusHours(i));
+            booking.setEnd(now.plusDays(10).plusHours(i).plusMinutes(30));
+            batch.add(booking);
+        }
+        statements.put("POST /bookings/batch", statements(json(post("/bookings/batch"), booker, batch)));
+
+        BookingDto booking = new BookingDto();
+        booking.setItemId(item.getId());
+        booking.setStart(now.plusDays(20));
+        booking.setEnd(now.plusDays(21));
+        statements.put("POST /bookings", statements(json(post("/bookings"), booker, booking)));
+        statements.put("PATCH /bookings/{id}", statements(patch("/bookings/{id}", bookings.get(2).getId())
+                .header(HEADER_USER_ID, owner.getId())
+                .param("approved", "true")));
+
+        statements.put("POST /items", statements(json(post("/items"), owner,
+                Map.of("name", "Saw", "description", "New item", "available", true))));
+        statements.put("PATCH /items/{id}", statements(json(patch("/items/{id}", item.getId()), owner,
+                Map.of("name", "Drill renamed"))));
+        statements.put("POST /items/{id}/comment", statements(json(post("/items/{id}/comment", item.getId()), booker,
+                Map.of("text", "Great drill"))));
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            lines.append(objectMapper.writeValueAsString(
+                    Map.of("name", "Imported " + i, "description", "Imported item", "available", true))).append('\n');
+        }
+        statements.put("POST /items/import", statements(post("/items/import")
+                .header(HEADER_USER_ID, owner.getId())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(lines.toString())));
+
+        statements.put("POST /requests", statements(json(post("/requests"), booker,
+                Map.of("description", "Need a saw"))));
+
+        User guest = userRepository.save(new User(null, "guest", "guest" + rows + "@shareit.ru"));
+        statements.put("POST /users", statements(json(post("/users"), null,
+                Map.of("name", "new", "email", "new" + rows + "@shareit.ru"))));
+        statements.put("PATCH /users/{id}", statements(json(patch("/users/{id}", guest.getId()), null,
+                Map.of("name", "guest renamed"))));
+        statements.put("DELETE /users/{id}", statements(delete("/users/{id}", guest.getId())));
+        return statements;
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, User user, Object body)
+            throws Exception {
+        if (user != null) {
+            request.header(HEADER_USER_ID, user.getId());
+        }
+        return request.contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+    }
+
+    private static MockHttpServletRequestBuilder bookings(String path, User user, String state, String cursor) {
+        MockHttpServletRequestBuilder request = get(path)
+                .header(HEADER_USER_ID, user.getId())
+                .param("state", state)
+                .param("size", "1000");
+        return cursor != null ? request.param("cursor", cursor) : request;
+    }
+
+    private long statements(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        String statements = result.getResponse().getHeader(HEADER_SQL_STATEMENTS);
+        assertThat(statements).as(result.getRequest().getRequestURI()).isNotNull();
+        return Long.parseLong(statements);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.item.dto.TimeSlot;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BookingIntervalIndexTest {
+    private final AtomicLong ids = new AtomicLong();
+    private final User owner = new User(1L, "owner", "owner@shareit.ru");
+    private final User firstBooker = new User(2L, "first", "first@shareit.ru");
+    private final User secondBooker = new User(3L, "second", "second@shareit.ru");
+    private final Item item = new Item(10L, "Drill", "Drill", true, owner, null);
+
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(mock(BookingRepository.class), true);
+        index.build();
+    }
+
+    @Test
+    void endedBookingsArePrunedOnInsert() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        save(firstBooker, now, now.plusNanos(50_000_000));
+        Thread.sleep(100);
+
+        save(secondBooker, now.plusDays(1), now.plusDays(2));
+
+        assertThat(index.busy(item.getId(), now.minusDays(1), now.plusDays(3)))
+                .extracting(TimeSlot::getStart)
+                .containsExactly(now.plusDays(1));
+    }
+
+    @Test
+    void deletedUserBookingsAreRemoved() {
+        LocalDateTime now = LocalDateTime.now();
+        save(firstBooker, now.plusDays(1), now.plusDays(2));
+        save(secondBooker, now.plusDays(3), now.plusDays(4));
+
+        index.onUserDeleted(new UserDeletedEvent(firstBooker.getId()));
+        List<TimeSlot> busy = index.busy(item.getId(), now, now.plusDays(5));
+        assertThat(busy).extracting(TimeSlot::getStart).containsExactly(now.plusDays(3));
+
+        index.onUserDeleted(new UserDeletedEvent(owner.getId()));
+        assertThat(index.busy(item.getId(), now, now.plusDays(5))).isEmpty();
+    }
+
+    private void save(User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking(null, start, end, item, booker, Status.WAITING);
+        index.save(booking, () -> {
+            booking.setId(ids.incrementAndGet());
+            return booking;
+        });
+    }
+}